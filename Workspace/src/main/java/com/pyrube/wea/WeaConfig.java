@@ -70,7 +70,9 @@ import com.pyrube.one.lang.Strings;
  * 						</cookie>
  * 					</cookies>
  * 				</signon>
- * 				<captcha enabled="true">
+ * 				<!-- if stateless = true, the captcha code is not held in session, but signed into a single-use token 
+ * 				which is carried by a cookie (or the request parameter captchaToken) -->
+ * 				<captcha enabled="true" stateless="false">
  * 					<codeLength>4</codeLength>
  * 					<mimeType>image/png</mimeType>
  * 					<imageWidth>96</imageWidth>
@@ -79,6 +81,13 @@ import com.pyrube.one.lang.Strings;
  * 					<charPosY>21</charPosY>
  * 					<fontSize>23</fontSize>
  * 					<availableChars>ABCDEFGHIJKLMNOPQRSTUVWXYZ34678</availableChars>
+ * 					<!-- pre-rendered images: size=0 to disable the pool. the pool is refilled in background once 
+ * 					it drops to refillThreshold. images older than ttl (in seconds, 0 for never) are discarded -->
+ * 					<pool size="32" refillThreshold="8" ttl="300"/>
+ * 					<!-- stateless token: secret shared by the servers (a random one per server if absent), ttl in seconds, 
+ * 					the peak number of tokens issued per second, and the maximum number of the consumed tokens held 
+ * 					to reject replays (issueRate * ttl if absent). no token is accepted while the guard is full -->
+ * 					<token secret="" ttl="300" cookieName="weaCaptcha" issueRate="50" replayGuardSize=""/>
  * 				</captcha>
  * 				<!-- Indicates to the browser whether cookies should only be sent using a secure protocol, such as HTTPS or SSL -->
  * 				<useSecureCookie>false</useSecureCookie>
@@ -238,6 +247,7 @@ public class WeaConfig extends Configurator {
 			if (captchaElm != null) {
 				captcha = new Captcha();
 				captcha.setEnabled(Boolean.valueOf(ConfigManager.getAttributeValue(captchaElm, "enabled")).booleanValue());
+				captcha.setStateless(Boolean.valueOf(ConfigManager.getAttributeValue(captchaElm, "stateless")).booleanValue());
 				captcha.setCodeLength(Integer.parseInt(ConfigManager.getSingleValue(captchaElm, "codeLength")));
 				captcha.setMimeType(ConfigManager.getSingleValue(captchaElm, "mimeType"));
 				captcha.setImageWidth(Integer.parseInt(ConfigManager.getSingleValue(captchaElm, "imageWidth")));
@@ -246,6 +256,21 @@ public class WeaConfig extends Configurator {
 				captcha.setCharPosY(Integer.parseInt(ConfigManager.getSingleValue(captchaElm, "charPosY")));
 				captcha.setFontSize(Integer.parseInt(ConfigManager.getSingleValue(captchaElm, "fontSize")));
 				captcha.setAvailableChars(ConfigManager.getSingleValue(captchaElm, "availableChars").toCharArray());
+				String poolSize = ConfigManager.getAttributeValue(captchaElm, "pool", "size");
+				if (!Strings.isEmpty(poolSize)) captcha.setPoolSize(Integer.parseInt(poolSize));
+				String poolRefillThreshold = ConfigManager.getAttributeValue(captchaElm, "pool", "refillThreshold");
+				if (!Strings.isEmpty(poolRefillThreshold)) captcha.setPoolRefillThreshold(Integer.parseInt(poolRefillThreshold));
+				String poolTtl = ConfigManager.getAttributeValue(captchaElm, "pool", "ttl");
+				if (!Strings.isEmpty(poolTtl)) captcha.setPoolTtl(Integer.parseInt(poolTtl));
+				captcha.setTokenSecret(ConfigManager.getAttributeValue(captchaElm, "token", "secret"));
+				String tokenTtl = ConfigManager.getAttributeValue(captchaElm, "token", "ttl");
+				if (!Strings.isEmpty(tokenTtl)) captcha.setTokenTtl(Integer.parseInt(tokenTtl));
+				String tokenCookieName = ConfigManager.getAttributeValue(captchaElm, "token", "cookieName");
+				if (!Strings.isEmpty(tokenCookieName)) captcha.setTokenCookieName(tokenCookieName);
+				String tokenIssueRate = ConfigManager.getAttributeValue(captchaElm, "token", "issueRate");
+				if (!Strings.isEmpty(tokenIssueRate)) captcha.setTokenIssueRate(Integer.parseInt(tokenIssueRate));
+				String tokenReplayGuardSize = ConfigManager.getAttributeValue(captchaElm, "token", "replayGuardSize");
+				if (!Strings.isEmpty(tokenReplayGuardSize)) captcha.setTokenReplayGuardSize(Integer.parseInt(tokenReplayGuardSize));
 			}
 			useSecureCookie = Boolean.valueOf(ConfigManager.getSingleValue(ctx, "useSecureCookie")).booleanValue();
 			useHttpOnlyCookie = Boolean.valueOf(ConfigManager.getSingleValue(ctx, "useHttpOnlyCookie")).booleanValue();
@@ -394,6 +419,11 @@ public class WeaConfig extends Configurator {
 		 */
 		private boolean enabled = false;
 
+		/**
+		 * whether the captcha code is signed into a token instead of being held in session
+		 */
+		private boolean stateless = false;
+
 		/**
 		 * the captcha code length (number of letters)
 		 */
@@ -436,6 +466,47 @@ public class WeaConfig extends Configurator {
 										'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V',
 										'W', 'X', 'Y', 'Z', '3', '4', '6', '7', '8' };
 
+		/**
+		 * the number of pre-rendered images. 0 means no pool
+		 */
+		private int poolSize = 32;
+
+		/**
+		 * the pool is refilled once the number of pre-rendered images drops to it
+		 */
+		private int poolRefillThreshold = 8;
+
+		/**
+		 * pre-rendered images older than it (in seconds) are discarded. 0 means never
+		 */
+		private int poolTtl = 300;
+
+		/**
+		 * the secret to sign the stateless tokens. null means a random one per server
+		 */
+		private String tokenSecret = null;
+
+		/**
+		 * the stateless token expires after it (in seconds)
+		 */
+		private int tokenTtl = 300;
+
+		/**
+		 * the name of the cookie carrying the stateless token
+		 */
+		private String tokenCookieName = "weaCaptcha";
+
+		/**
+		 * the peak number of the stateless tokens issued per second
+		 */
+		private int tokenIssueRate = 50;
+
+		/**
+		 * the maximum number of the consumed tokens held to reject replays. 
+		 * 0 means the issue rate times the ttl
+		 */
+		private int tokenReplayGuardSize = 0;
+
 		/**
 		 * @return the enabled
 		 */
@@ -450,6 +521,20 @@ public class WeaConfig extends Configurator {
 			this.enabled = enabled;
 		}
 
+		/**
+		 * @return the stateless
+		 */
+		public boolean isStateless() {
+			return stateless;
+		}
+
+		/**
+		 * @param stateless the stateless to set
+		 */
+		public void setStateless(boolean stateless) {
+			this.stateless = stateless;
+		}
+
 		/**
 		 * @return the codeLength
 		 */
@@ -561,6 +646,118 @@ public class WeaConfig extends Configurator {
 		public void setAvailableChars(char[] availableChars) {
 			this.availableChars = availableChars;
 		}
+
+		/**
+		 * @return the poolSize
+		 */
+		public int getPoolSize() {
+			return poolSize;
+		}
+
+		/**
+		 * @param poolSize the poolSize to set
+		 */
+		public void setPoolSize(int poolSize) {
+			this.poolSize = poolSize;
+		}
+
+		/**
+		 * @return the poolRefillThreshold
+		 */
+		public int getPoolRefillThreshold() {
+			return poolRefillThreshold;
+		}
+
+		/**
+		 * @param poolRefillThreshold the poolRefillThreshold to set
+		 */
+		public void setPoolRefillThreshold(int poolRefillThreshold) {
+			this.poolRefillThreshold = poolRefillThreshold;
+		}
+
+		/**
+		 * @return the poolTtl
+		 */
+		public int getPoolTtl() {
+			return poolTtl;
+		}
+
+		/**
+		 * @param poolTtl the poolTtl to set
+		 */
+		public void setPoolTtl(int poolTtl) {
+			this.poolTtl = poolTtl;
+		}
+
+		/**
+		 * @return the tokenSecret
+		 */
+		public String getTokenSecret() {
+			return tokenSecret;
+		}
+
+		/**
+		 * @param tokenSecret the tokenSecret to set
+		 */
+		public void setTokenSecret(String tokenSecret) {
+			this.tokenSecret = tokenSecret;
+		}
+
+		/**
+		 * @return the tokenTtl
+		 */
+		public int getTokenTtl() {
+			return tokenTtl;
+		}
+
+		/**
+		 * @param tokenTtl the tokenTtl to set
+		 */
+		public void setTokenTtl(int tokenTtl) {
+			this.tokenTtl = tokenTtl;
+		}
+
+		/**
+		 * @return the tokenCookieName
+		 */
+		public String getTokenCookieName() {
+			return tokenCookieName;
+		}
+
+		/**
+		 * @param tokenCookieName the tokenCookieName to set
+		 */
+		public void setTokenCookieName(String tokenCookieName) {
+			this.tokenCookieName = tokenCookieName;
+		}
+
+		/**
+		 * @return the tokenIssueRate
+		 */
+		public int getTokenIssueRate() {
+			return tokenIssueRate;
+		}
+
+		/**
+		 * @param tokenIssueRate the tokenIssueRate to set
+		 */
+		public void setTokenIssueRate(int tokenIssueRate) {
+			this.tokenIssueRate = tokenIssueRate;
+		}
+
+		/**
+		 * @return the tokenReplayGuardSize
+		 */
+		public int getTokenReplayGuardSize() {
+			return tokenReplayGuardSize;
+		}
+
+		/**
+		 * @param tokenReplayGuardSize the tokenReplayGuardSize to set
+		 */
+		public void setTokenReplayGuardSize(int tokenReplayGuardSize) {
+			this.tokenReplayGuardSize = tokenReplayGuardSize;
+		}
 	}
 
 	/**
@@ -20,10 +20,18 @@ import javax.servlet.ServletContextEvent;
 import javax.servlet.ServletContextListener;
 
 import com.pyrube.one.app.AppLifecycleManager;
+import com.pyrube.wea.format.core.LocalFormats;
+import com.pyrube.wea.security.core.CaptchaPool;
+import com.pyrube.wea.ui.controllers.JseaController;
+import com.pyrube.wea.ui.tags.JseaElementSupportTag;
 
 /**
  * <pre>
- * Configuration loader when the application starts
+ * Configuration loader when the application starts. the serialized JSEA initialization 
+ * payloads, the cached tag labels and the thread-confined formats are discarded whenever 
+ * the application starts up or shuts down, so nothing built from the previous 
+ * configuration is served after a restart. the background threads of WEA are stopped when 
+ * the application shuts down, so they do not pin the web application class loader.
  * web.xml:
  * 	<listener>
  * 		<listener-class>com.pyrube.wea.WeaConfigLoader</listener-class>
@@ -46,11 +54,19 @@ public class WeaConfigLoader implements ServletContextListener {
 	@Override
 	public void contextInitialized(ServletContextEvent event) {
 		AppLifecycleManager.startup();
+		JseaController.clearInitPayloads();
+		JseaElementSupportTag.clearCaches();
+		LocalFormats.reset();
 	}
 
 	@Override
 	public void contextDestroyed(ServletContextEvent event) {
 		AppLifecycleManager.shutdown();
+		JseaController.shutdownProgressPushers();
+		CaptchaPool.shutdownInstance();
+		JseaController.clearInitPayloads();
+		JseaElementSupportTag.clearCaches();
+		LocalFormats.reset();
 	}
 
 }
@@ -58,7 +58,9 @@ public interface WeaConstants {
 	
 	/**
 	 * The key for session attribute name of upload progress
+	 * @deprecated upload progresses are kept in <code>UploadProgressRegistry</code>
 	 */
+	@Deprecated
 	public static final String SESSION_ATTRNAME_UPLOAD_PROGRESS = "WEA.KEY_SESSIONATTRNAME_UPLOADPROGRESS";
 	
 	/**
@@ -81,6 +83,11 @@ public interface WeaConstants {
 	 */
 	public static final String SESSION_ATTRNAME_CAPTCHA = "WEA.KEY_SESSIONATTRNAME_CAPTCHA";
 	
+	/**
+	 * The response header name of the stateless captcha token
+	 */
+	public static final String HEADER_NAME_CAPTCHA_TOKEN = "X-Captcha-Token";
+	
 	/**
 	 * The key for session attribute name of onboarding for user enrollment
 	 */
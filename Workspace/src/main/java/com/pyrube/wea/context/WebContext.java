@@ -17,12 +17,15 @@
 package com.pyrube.wea.context;
 
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.TimeZone;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.expression.EvaluationContext;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.servlet.ThemeResolver;
@@ -74,23 +77,73 @@ public class WebContext {
 	private Boolean defaultHtmlEscaping;
 	
 	/**
-	 * constructor
+	 * whether default HTML-escaping has been resolved. it is needed since 
+	 * <code>defaultHtmlEscaping</code> may be null after resolving.
+	 */
+	private boolean defaultHtmlEscapingResolved = false;
+	
+	/**
+	 * the evaluation context of access expressions, and the decisions of access 
+	 * expressions (keyed by expression). both are for the authentication below.
+	 */
+	private EvaluationContext accessEvaluationContext;
+	private Map<String, Boolean> accessDecisions;
+	private Authentication accessAuthentication;
+	
+	/**
+	 * constructor. all facets (locale, timezone, theme and default HTML-escaping) 
+	 * are resolved immediately.
 	 * @param request
 	 * @param response
 	 */
 	public WebContext(HttpServletRequest request, HttpServletResponse response) {
+		this(request, response, false);
+	}
+	
+	/**
+	 * constructor
+	 * @param request
+	 * @param response
+	 * @param lazy if true, each facet (locale, timezone, theme and default HTML-escaping) 
+	 *        will not be resolved until it is accessed first time.
+	 */
+	public WebContext(HttpServletRequest request, HttpServletResponse response, boolean lazy) {
 		this.request = request;
 		this.response = response;
-		
-		// Resolve a Locale
+		if (!lazy) {
+			this.locale = resolveLocale();
+			this.timezone = resolveTimezone();
+			this.theme = resolveTheme();
+			resolveDefaultHtmlEscaping();
+		}
+	}
+
+	/**
+	 * resolve a locale. it is from session first, then from request. 
+	 * application default locale is used if not found. 
+	 * it is held onto the session only if a session exists already, so an anonymous 
+	 * request (i.e. a first page view with a stateless captcha) never creates a session, 
+	 * and neither does a lazy context accessed first time while rendering a view.
+	 * @return Locale
+	 */
+	private Locale resolveLocale() {
 		Locale locale = Weas.findLocale(request);
 		if (locale == null) {
 			locale = request.getLocale();
 			if (locale == null) locale = I18nManager.getDefaultLocale();
-			Weas.holdLocale(request, locale);
+			if (request.getSession(false) != null) {
+				Weas.holdLocale(request, locale);
+			}
 		}
-		this.locale = locale;
-		
+		return(locale);
+	}
+
+	/**
+	 * resolve a time zone. it is from the signed-on user first, 
+	 * otherwise from the calendar of current locale.
+	 * @return TimeZone
+	 */
+	private TimeZone resolveTimezone() {
 		TimeZone timezone = null;
 		Authentication authen = SecurityContextHolder.getContext().getAuthentication();
 		if (authen != null) {
@@ -101,12 +154,18 @@ public class WebContext {
 			}
 		}
 		if (timezone == null) {
-			Calendar calendar = Calendar.getInstance(locale);
+			Calendar calendar = Calendar.getInstance(getLocale());
 			timezone = calendar.getTimeZone();
 		}
-		this.timezone = timezone;
+		return(timezone);
+	}
 
-		// Resolve a theme
+	/**
+	 * resolve a theme with bean <code>themeResolver</code>. 
+	 * system-default theme is used if not found.
+	 * @return String
+	 */
+	private String resolveTheme() {
 		String themeName = null;
 		ThemeResolver themeResolver = (ThemeResolver) AppContextManager.findBean("themeResolver");
 		if (themeResolver != null) {
@@ -115,11 +174,16 @@ public class WebContext {
 		if (themeName == null) {
 			themeName = Weas.getDefaultTheme();
 		}
-		this.theme = themeName;
-		
-		// Determine default HTML escaping configuration from the "defaultHtmlEscaping" in 
-		// pyrube-config.xml
+		return(themeName);
+	}
+
+	/**
+	 * Determine default HTML escaping configuration from the "defaultHtmlEscaping" in 
+	 * pyrube-config.xml
+	 */
+	private void resolveDefaultHtmlEscaping() {
 		this.defaultHtmlEscaping = WeaConfig.getWeaConfig().isDefaultHtmlEscaping();
+		this.defaultHtmlEscapingResolved = true;
 	}
 
 	/**
@@ -142,6 +206,7 @@ public class WebContext {
 	 * @return the locale
 	 */
 	public Locale getLocale() {
+		if (locale == null && request != null) locale = resolveLocale();
 		return(locale);
 	}
 
@@ -149,6 +214,7 @@ public class WebContext {
 	 * @return the timezone
 	 */
 	public TimeZone getTimezone() {
+		if (timezone == null && request != null) timezone = resolveTimezone();
 		return(timezone);
 	}
 
@@ -156,6 +222,7 @@ public class WebContext {
 	 * @return the theme
 	 */
 	public String getTheme() {
+		if (theme == null && request != null) theme = resolveTheme();
 		return theme;
 	}
 
@@ -164,6 +231,7 @@ public class WebContext {
 	 * @return false if no default given
 	 */
 	public boolean isDefaultHtmlEscaping() {
+		if (!defaultHtmlEscapingResolved) resolveDefaultHtmlEscaping();
 		return (this.defaultHtmlEscaping != null && this.defaultHtmlEscaping.booleanValue());
 	}
 	
@@ -173,7 +241,73 @@ public class WebContext {
 	 */
 	public void setDefaultHtmlEscaping(Boolean defaultHtmlEscaping) {
 		this.defaultHtmlEscaping = defaultHtmlEscaping;
+		this.defaultHtmlEscapingResolved = true;
+	}
+	/**
+	 * returns the evaluation context of access expressions created for the given authentication
+	 * @param authen the current authentication
+	 * @return null if not found or it was created for another authentication
+	 */
+	public EvaluationContext getAccessEvaluationContext(Authentication authen) {
+		bindAccessAuthentication(authen);
+		return (accessEvaluationContext);
+	}
+	
+	/**
+	 * holds the evaluation context of access expressions for the given authentication
+	 * @param authen the current authentication
+	 * @param accessEvaluationContext
+	 */
+	public void setAccessEvaluationContext(Authentication authen, EvaluationContext accessEvaluationContext) {
+		bindAccessAuthentication(authen);
+		this.accessEvaluationContext = accessEvaluationContext;
+	}
+	
+	/**
+	 * returns the decision of the given access expression made for the given authentication in this request
+	 * @param authen the current authentication
+	 * @param access the access expression
+	 * @return null if the expression has not been evaluated yet
+	 */
+	public Boolean findAccessDecision(Authentication authen, String access) {
+		bindAccessAuthentication(authen);
+		return (accessDecisions != null ? accessDecisions.get(access) : null);
 	}
+	
+	/**
+	 * holds the decision of the given access expression for the given authentication
+	 * @param authen the current authentication
+	 * @param access the access expression
+	 * @param granted the decision
+	 */
+	public void holdAccessDecision(Authentication authen, String access, boolean granted) {
+		bindAccessAuthentication(authen);
+		if (accessDecisions == null) accessDecisions = new HashMap<String, Boolean>();
+		accessDecisions.put(access, Boolean.valueOf(granted));
+	}
+	
+	/**
+	 * clears the evaluation context and the decisions of access expressions. 
+	 * it should be called once the authentication (or its authorities) is changed.
+	 */
+	public void clearAccessDecisions() {
+		accessAuthentication = null;
+		accessEvaluationContext = null;
+		accessDecisions = null;
+	}
+	
+	/**
+	 * binds the evaluation context and decisions of access expressions to the given 
+	 * authentication. they are cleared if they belong to another authentication.
+	 * @param authen
+	 */
+	private void bindAccessAuthentication(Authentication authen) {
+		if (authen != accessAuthentication) {
+			clearAccessDecisions();
+			accessAuthentication = authen;
+		}
+	}
+	
 	/**
 	 * clear all properties
 	 */
@@ -183,5 +317,8 @@ public class WebContext {
 		locale = null;
 		timezone = null;
 		theme = null;
+		defaultHtmlEscaping = null;
+		defaultHtmlEscapingResolved = false;
+		clearAccessDecisions();
 	}
 }
@@ -28,11 +28,13 @@ import com.pyrube.wea.format.converters.in.DoubleDeserializer;
 import com.pyrube.wea.format.converters.in.FloatDeserializer;
 import com.pyrube.wea.format.converters.in.PrimitiveDoublesDeserializer;
 import com.pyrube.wea.format.converters.in.PrimitiveFloatsDeserializer;
+import com.pyrube.wea.format.converters.out.TimestampLocalizingModule;
 
 /**
  * WEA Localized Object Mapper provides functionality for reading localized
  * JSON including <code>Date</code>, <code>BigDecimal</code>, <code>Double</code>
- * or <code>Float</code> property.
+ * or <code>Float</code> property, and for writing local timestamps of 
+ * <code>Data</code> models inline.
  * 
  * @author Aranjuez
  * @version Dec 01, 2009
@@ -63,5 +65,7 @@ public class LocalizedObjectMapper extends ObjectMapper {
 		module.addDeserializer(Float.class, FloatDeserializer.REFERENCE);
 		module.addDeserializer(float[].class, PrimitiveFloatsDeserializer.INSTANCE);
 		this.registerModule(module);
+		// localize timestamps while serializing
+		this.registerModule(new TimestampLocalizingModule());
 	}
 }
@@ -30,6 +30,7 @@ import com.pyrube.one.app.i18n.format.annotations.Converting;
 import com.pyrube.one.app.logging.Logger;
 import com.pyrube.one.lang.Strings;
 import com.pyrube.wea.context.WebContextHolder;
+import com.pyrube.wea.format.core.LocalFormats;
 
 /**
  * Big-decimal converter
@@ -63,8 +64,7 @@ public class BigDecimalConverter implements GenericConverter {
 			String localeCode = WebContextHolder.getWebContext().getLocale().toString();
 			Converting converting = targetType.getAnnotation(Converting.class);
 			String formatName = (converting == null) ? Apps.i18n.format.name.MONEY : converting.format().getName();
-			DecimalFormat format = (DecimalFormat) Apps.a.number.format.of(localeCode, formatName).value();
-			format.setParseBigDecimal(true);
+			DecimalFormat format = LocalFormats.bigDecimalFormatOf(localeCode, formatName);
 			target = format.parse(source);
 			return (BigDecimal) target;
 		} catch (Exception e) {
@@ -25,6 +25,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.pyrube.one.app.Apps;
 import com.pyrube.one.lang.Strings;
+import com.pyrube.wea.format.core.LocalFormats;
 
 /**
  * Localized Big Decimal Deserializer provides functionality for converting localized
@@ -45,7 +46,7 @@ public class BigDecimalDeserializer extends LocalizedPropertyDeserializer<BigDec
 	 * constructor
 	 * @param clz Class
 	 */
-	protected BigDecimalDeserializer(Class<BigDecimal> clz) { super(clz); }
+	protected BigDecimalDeserializer(Class<BigDecimal> clz) { super(clz, Apps.i18n.format.name.MONEY); }
 
 	@Override
 	public BigDecimal deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JsonProcessingException {
@@ -54,9 +55,7 @@ public class BigDecimalDeserializer extends LocalizedPropertyDeserializer<BigDec
 		try {
 			Number target = null;
 			String localeCode = Apps.the.user.locale().toString();
-			String formatName = (this.converting == null) ? Apps.i18n.format.name.MONEY : this.converting.format().getName();
-			DecimalFormat format = (DecimalFormat) Apps.a.number.format.of(localeCode, formatName).value();
-			format.setParseBigDecimal(true);
+			DecimalFormat format = LocalFormats.bigDecimalFormatOf(localeCode, this.formatName);
 			target = format.parse(source);
 			return (BigDecimal) target;
 		} catch (Exception e) {
@@ -31,6 +31,7 @@ import com.pyrube.one.app.Apps;
 import com.pyrube.one.app.i18n.format.annotations.Converting;
 import com.pyrube.one.lang.Strings;
 import com.pyrube.wea.context.WebContextHolder;
+import com.pyrube.wea.format.core.LocalFormats;
 
 /**
  * Convert a date string into a Date object.
@@ -76,7 +77,7 @@ public class DateConverter implements ConditionalGenericConverter {
 				localTimezone = WebContextHolder.getWebContext().getTimezone();
 			}
 			Locale locale = WebContextHolder.getWebContext().getLocale();
-			DateFormat format = Apps.a.date.format.of(locale.toString(), converting.format().getName(), localTimezone).value();
+			DateFormat format = LocalFormats.dateFormatOf(locale.toString(), converting.format().getName(), localTimezone);
 			d = format.parse(sDate);
 			return (d);
 		} catch (Exception e) {
@@ -28,6 +28,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.pyrube.one.app.Apps;
 import com.pyrube.one.lang.Strings;
+import com.pyrube.wea.format.core.LocalFormats;
 
 /**
  * Localized Date Deserializer provides functionality for converting localized
@@ -48,7 +49,7 @@ public class DateDeserializer extends LocalizedPropertyDeserializer<Date> {
 	 * constructor
 	 * @param clz Class
 	 */
-	protected DateDeserializer(Class<Date> clz) { super(clz); }
+	protected DateDeserializer(Class<Date> clz) { super(clz, Apps.i18n.format.name.DATE); }
 
 	@Override
 	public Date deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JsonProcessingException {
@@ -61,16 +62,11 @@ public class DateDeserializer extends LocalizedPropertyDeserializer<Date> {
 				target = new Date(Long.valueOf(source));
 				return(target);
 			}
-			if (this.converting == null) {
-				DateFormat defaultFormat = Apps.a.date.format.of(locale.toString(), Apps.i18n.format.name.DATE).value();
-				target = defaultFormat.parse(source);
-				return(target);
-			}
 			TimeZone localTimezone = null;
-			if (this.converting.local()) {
+			if (this.local) {
 				localTimezone = Apps.the.user.timezone();
 			}
-			DateFormat format = Apps.a.date.format.of(locale.toString(), converting.format().getName(), localTimezone).value();
+			DateFormat format = LocalFormats.dateFormatOf(locale.toString(), this.formatName, localTimezone);
 			target = format.parse(source);
 			return(target);
 		} catch (Exception e) {
@@ -24,6 +24,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.pyrube.one.app.Apps;
 import com.pyrube.one.lang.Strings;
+import com.pyrube.wea.format.core.LocalFormats;
 
 /**
  * Localized Double  Deserializer provides functionality for converting localized
@@ -48,7 +49,7 @@ public class DoubleDeserializer extends LocalizedPropertyDeserializer<Double> {
 	 * constructor
 	 * @param clz Class
 	 */
-	protected DoubleDeserializer(Class<Double> clz) { super(clz); }
+	protected DoubleDeserializer(Class<Double> clz) { super(clz, Apps.i18n.format.name.FLOAT); }
 
 	@Override
 	public Double deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JsonProcessingException {
@@ -59,8 +60,7 @@ public class DoubleDeserializer extends LocalizedPropertyDeserializer<Double> {
 		try {
 			Number target = null;
 			String localeCode = Apps.the.user.locale().toString();
-			String formatName = (this.converting == null) ? Apps.i18n.format.name.FLOAT : this.converting.format().getName();
-			DecimalFormat format = (DecimalFormat) Apps.a.number.format.of(localeCode, formatName).value();
+			DecimalFormat format = LocalFormats.numberFormatOf(localeCode, this.formatName);
 			target = format.parse(source);
 			return target.doubleValue();
 		} catch (Exception e) {
@@ -29,6 +29,7 @@ import com.pyrube.one.app.i18n.format.annotations.Converting;
 import com.pyrube.one.app.logging.Logger;
 import com.pyrube.one.lang.Strings;
 import com.pyrube.wea.context.WebContextHolder;
+import com.pyrube.wea.format.core.LocalFormats;
 
 /**
  * Float converter
@@ -64,7 +65,7 @@ public class FloatConverter implements GenericConverter {
 			String localeCode = WebContextHolder.getWebContext().getLocale().toString();
 			Converting converting = targetType.getAnnotation(Converting.class);
 			String formatName = (converting == null) ? Apps.i18n.format.name.FLOAT : converting.format().getName();
-			DecimalFormat format = (DecimalFormat) Apps.a.number.format.of(localeCode, formatName).value();
+			DecimalFormat format = LocalFormats.numberFormatOf(localeCode, formatName);
 			target = format.parse(source);
 			return(target.floatValue());
 		} catch (Exception e) {
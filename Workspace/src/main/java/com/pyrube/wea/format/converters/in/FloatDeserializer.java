@@ -24,6 +24,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.pyrube.one.app.Apps;
 import com.pyrube.one.lang.Strings;
+import com.pyrube.wea.format.core.LocalFormats;
 
 /**
  * Localized Float Deserializer provides functionality for converting localized
@@ -48,7 +49,7 @@ public class FloatDeserializer extends LocalizedPropertyDeserializer<Float> {
 	 * constructor
 	 * @param clz Class
 	 */
-	protected FloatDeserializer(Class<Float> clz) { super(clz); }
+	protected FloatDeserializer(Class<Float> clz) { super(clz, Apps.i18n.format.name.FLOAT); }
 
 	@Override
 	public Float deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JsonProcessingException {
@@ -59,8 +60,7 @@ public class FloatDeserializer extends LocalizedPropertyDeserializer<Float> {
 		try {
 			Number target = null;
 			String localeCode = Apps.the.user.locale().toString();
-			String formatName = (this.converting == null) ? Apps.i18n.format.name.FLOAT : this.converting.format().getName();
-			DecimalFormat format = (DecimalFormat) Apps.a.number.format.of(localeCode, formatName).value();
+			DecimalFormat format = LocalFormats.numberFormatOf(localeCode, this.formatName);
 			target = format.parse(source);
 			return target.floatValue();
 		} catch (Exception e) {
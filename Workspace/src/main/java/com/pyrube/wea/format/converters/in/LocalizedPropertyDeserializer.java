@@ -16,9 +16,12 @@
 
 package com.pyrube.wea.format.converters.in;
 
+import java.io.IOException;
+import java.text.DecimalFormat;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
@@ -45,7 +48,7 @@ public abstract class LocalizedPropertyDeserializer<T> extends JsonDeserializer<
 	private static Logger logger = Apps.a.logger.named(LocalizedPropertyDeserializer.class.getName());
 
 	/**
-	 * a set of deserializers: {Converting.format : LocalizedPropertyDeserializer}
+	 * a set of contextual deserializers: {deserializer class:property class:Converting.format:Converting.local : LocalizedPropertyDeserializer}
 	 */
 	protected static final Map<String, LocalizedPropertyDeserializer<?>> deserializers = new ConcurrentHashMap<>();
 
@@ -60,11 +63,32 @@ public abstract class LocalizedPropertyDeserializer<T> extends JsonDeserializer<
 	protected Converting converting;
 
 	/**
-	 * constructor
+	 * the format name. it is the default one if no <code>Converting</code> is given.
+	 */
+	protected String formatName;
+
+	/**
+	 * whether it is converted with local timezone
+	 */
+	protected boolean local = false;
+
+	/**
+	 * constructor. no default format name is given, so the format name is null unless the 
+	 * property has a <code>Converting</code>, and the subclass resolves its own default one.
 	 * @param propClass Class
 	 */
 	public LocalizedPropertyDeserializer(Class<T> propClass) {
+		this(propClass, null);
+	}
+
+	/**
+	 * constructor
+	 * @param propClass Class
+	 * @param defaultFormatName the format name if no <code>Converting</code> is given
+	 */
+	public LocalizedPropertyDeserializer(Class<T> propClass, String defaultFormatName) {
 		this.propClass = propClass;
+		this.formatName = defaultFormatName;
 	}
 
 	/**
@@ -79,26 +103,77 @@ public abstract class LocalizedPropertyDeserializer<T> extends JsonDeserializer<
 	 */
 	public void setConverting(Converting converting) {
 		this.converting = converting;
+		if (converting != null) {
+			this.formatName = converting.format().getName();
+			this.local = converting.local();
+		}
 	}
 
+	/**
+	 * returns the deserializer for the property with <code>Converting</code>. the format name 
+	 * and local flag are resolved here (once per property), and the deserializers are shared 
+	 * by the properties with same deserializer class, property class, format and local flag.
+	 */
 	@Override
 	public JsonDeserializer<?> createContextual(DeserializationContext deserializationContext,
 			BeanProperty beanProperty) throws JsonMappingException {
-		Converting converting = beanProperty.getAnnotation(Converting.class);
-		if (this.converting != null) {
-			LocalizedPropertyDeserializer<?> deserializer = deserializers.get(converting.format().getName());
-			if (deserializer == null) {
-				try {
-					deserializer = (LocalizedPropertyDeserializer<?>) this.clone();
-					deserializer.setConverting(converting);
-				} catch (CloneNotSupportedException e) {
-					logger.error("Clone '" + this.getClass().getName() + "' is not supported for " + beanProperty.getName(), e);
-				}
-				deserializers.putIfAbsent(converting.format().getName(), deserializer);
+		Converting converting = (beanProperty != null) ? beanProperty.getAnnotation(Converting.class) : null;
+		if (converting == null) return this;
+		String key = this.getClass().getName() + ":" + propClass.getName() + ":" + converting.format().getName() + ":" + converting.local();
+		LocalizedPropertyDeserializer<?> deserializer = deserializers.get(key);
+		if (deserializer == null) {
+			try {
+				deserializer = (LocalizedPropertyDeserializer<?>) this.clone();
+				deserializer.setConverting(converting);
+			} catch (CloneNotSupportedException e) {
+				logger.error("Clone '" + this.getClass().getName() + "' is not supported for " + beanProperty.getName(), e);
+				return this;
 			}
-			return(deserializer);
+			LocalizedPropertyDeserializer<?> existing = deserializers.putIfAbsent(key, deserializer);
+			if (existing != null) deserializer = existing;
+		}
+		return(deserializer);
+	}
+
+	/**
+	 * checks whether a plain number (an optional minus sign and digits) is parsed 
+	 * by the given format as it is, i.e. no prefix, suffix or multiplier applies.
+	 * @param format
+	 * @return boolean
+	 */
+	protected static boolean isPlainParsable(DecimalFormat format) {
+		return format.getMultiplier() == 1
+				&& format.getPositivePrefix().isEmpty() && format.getPositiveSuffix().isEmpty()
+				&& "-".equals(format.getNegativePrefix()) && format.getNegativeSuffix().isEmpty();
+	}
+
+	/**
+	 * parses current string token if it is a plain number: an optional minus sign and 
+	 * up to 15 digits (surrounding white spaces allowed). it is locale-neutral, and no 
+	 * object is allocated.
+	 * @param p JsonParser
+	 * @return the number. NaN if it is not a plain number
+	 * @throws IOException
+	 */
+	protected static double parsePlainNumber(JsonParser p) throws IOException {
+		char[] chars = p.getTextCharacters();
+		int offset = p.getTextOffset();
+		int end = offset + p.getTextLength();
+		while (offset < end && chars[offset] <= ' ') offset++;
+		while (end > offset && chars[end - 1] <= ' ') end--;
+		boolean negative = (offset < end && chars[offset] == '-');
+		if (negative) offset++;
+		int digits = end - offset;
+		if (digits <= 0 || digits > 15) return Double.NaN;
+		long value = 0;
+		for (int i = offset; i < end; i++) {
+			char c = chars[i];
+			if (c < '0' || c > '9') return Double.NaN;
+			value = value * 10 + (c - '0');
 		}
-		return this;
+		// negate as a double, so "-0" is -0.0 as DecimalFormat parses it
+		double number = value;
+		return (negative ? -number : number);
 	}
 
 	@Override
@@ -18,6 +18,7 @@ package com.pyrube.wea.format.converters.in;
 
 import java.io.IOException;
 import java.text.DecimalFormat;
+import java.util.Arrays;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -26,6 +27,7 @@ import com.fasterxml.jackson.core.JsonTokenId;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.pyrube.one.app.Apps;
 import com.pyrube.one.lang.Strings;
+import com.pyrube.wea.format.core.LocalFormats;
 
 /**
  * Localized Primitive Double Array Deserializer provides functionality for converting localized
@@ -42,19 +44,39 @@ public class PrimitiveDoublesDeserializer extends LocalizedPropertyDeserializer<
 	 */
 	public static final PrimitiveDoublesDeserializer INSTANCE = new PrimitiveDoublesDeserializer(double[].class);
 
+	/**
+	 * the initial capacity of the buffer
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * the maximum capacity of the buffer kept for reusing (4 KB). a larger one is dropped after use, 
+	 * so a pooled thread never holds a big buffer for its lifetime
+	 */
+	private static final int MAX_REUSED_CAPACITY = 512;
+
+	/**
+	 * the buffer of current thread
+	 */
+	private static final ThreadLocal<double[]> buffers = new ThreadLocal<double[]>() {
+		@Override
+		protected double[] initialValue() {
+			return new double[INITIAL_CAPACITY];
+		}
+	};
+
 	/**
 	 * constructor
 	 * @param clz Class
 	 */
-	protected PrimitiveDoublesDeserializer(Class<double[]> clz) { super(clz); }
+	protected PrimitiveDoublesDeserializer(Class<double[]> clz) { super(clz, Apps.i18n.format.name.FLOAT); }
 
 	@Override
 	public double[] deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JsonProcessingException {
 		try {
 			JsonToken token;
 			String localeCode = Apps.the.user.locale().toString();
-			String formatName = (this.converting == null) ? Apps.i18n.format.name.FLOAT : this.converting.format().getName();
-			DecimalFormat format = (DecimalFormat) Apps.a.number.format.of(localeCode, formatName).value();
+			DecimalFormat format = LocalFormats.numberFormatOf(localeCode, this.formatName);
 			if (!p.isExpectedStartArrayToken()) {
 				double[] targets = null;
 				String text;
@@ -67,45 +89,42 @@ public class PrimitiveDoublesDeserializer extends LocalizedPropertyDeserializer<
 				}
 				return(targets);
 			}
-			int total    = 0,
-				capacity = 10,
-				i        = 0;
-			double[] array = new double[capacity];
+			boolean plainParsable = isPlainParsable(format);
+			int total = 0;
+			double[] array = buffers.get();
 			while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
 				if (token == JsonToken.VALUE_NULL) continue;
-				if (i >= capacity) {
-					double[] temp = new double[array.length + capacity];
-					System.arraycopy(array, 0, temp, 0, array.length);
-					array = temp;
-					i = 0;
+				if (total >= array.length) {
+					// grow geometrically
+					array = Arrays.copyOf(array, array.length << 1);
 				}
 				if (p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
 					array[total++] = p.getDoubleValue();
-					i++;
 					continue;
 				}
 				switch (p.getCurrentTokenId()) {
 					case JsonTokenId.ID_STRING:
+						double value = plainParsable ? parsePlainNumber(p) : Double.NaN;
+						if (!Double.isNaN(value)) {
+							array[total++] = value;
+							break;
+						}
 						String text = p.getText().trim();
 						if (Strings.isEmpty(text)) array[total++] = 0.0;
 						else array[total++] = format.parse(text).doubleValue();
-						i++;
 						break;
 					case JsonTokenId.ID_NUMBER_INT:
 						array[total++] = p.getDoubleValue();
-						i++;
 						break;
 					case JsonTokenId.ID_NULL:
 						array[total++] = 0.0;
-						i++;
 						break;
 					case JsonTokenId.ID_START_ARRAY:
 						break;
 				}
 			}
-			double[] targets = new double[total];
-			if (total > 0) System.arraycopy(array, 0, targets, 0, total);
-			return(targets);
+			if (array.length <= MAX_REUSED_CAPACITY) buffers.set(array);
+			return(Arrays.copyOf(array, total));
 		} catch (Exception e) {
 			throw Apps.an.exception.due(e);
 		}
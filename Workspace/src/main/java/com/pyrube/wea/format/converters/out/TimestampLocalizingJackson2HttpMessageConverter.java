@@ -17,29 +17,14 @@
 package com.pyrube.wea.format.converters.out;
 
 import java.io.IOException;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
-import java.text.Format;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.List;
-import java.util.Locale;
-import java.util.TimeZone;
 
-import org.apache.commons.beanutils.PropertyUtils;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.pyrube.one.app.i18n.format.FormatManager;
-import com.pyrube.one.app.i18n.format.annotations.Converting;
-import com.pyrube.one.app.inquiry.SearchCriteria;
-import com.pyrube.one.app.logging.Logger;
-import com.pyrube.one.app.persistence.Data;
-import com.pyrube.wea.context.WebContextHolder;
+import com.pyrube.wea.format.converters.LocalizedObjectMapper;
 
 /**
  * Implementation of {@link org.springframework.http.converter.HttpMessageConverter HttpMessageConverter} that
@@ -53,85 +38,12 @@ import com.pyrube.wea.context.WebContextHolder;
  * @deprecated use <code>LocalizingJackson2HttpMessageConverter</code> instead
  */
 public class TimestampLocalizingJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
-	/**
-	 * logger
-	 */
-	private static Logger logger = Logger.getInstance(TimestampLocalizingJackson2HttpMessageConverter.class.getName());
 	@Override
 	protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
 		throws IOException, HttpMessageNotWritableException {
-		if (object instanceof SearchCriteria) {
-			// grid data
-			SearchCriteria<?> searchCriteria = (SearchCriteria<?>) object;
-			localizeTimestamp(searchCriteria.getResults());
-		} else if (object instanceof Data) {
-			// detailed data
-			localizeTimestamp((Data<?>) object);
-		}
+		// grid data or detailed data. they are localized inline if LocalizedObjectMapper is used.
+		if (!(getObjectMapper() instanceof LocalizedObjectMapper)) TimestampLocalizingPlan.localize(object);
 		super.writeInternal(object, type, outputMessage);
 	}
 
-	/**
-	 * localize the timestamp-converting property in given models if they are local
-	 * @param models
-	 */
-	private void localizeTimestamp(List<?> models) {
-		if (models == null) return;
-		for (Object model : models) {
-			if (model instanceof Data) { localizeTimestamp((Data<?>) model); }
-		}
-	}
-	
-	/**
-	 * localize the timestamp-converting property in given models if they are local
-	 * @param models
-	 */
-	private void localizeTimestamp(Object[] models) {
-		if (models == null) return;
-		for (Object model : models) {
-			if (model instanceof Data) { localizeTimestamp((Data<?>) model); }
-		}
-	}
-	
-	/**
-	 * localize the timestamp-converting property in a given model if it is local
-	 * @param model
-	 */
-	private void localizeTimestamp(Data<?> model) {
-		if (model == null) return;
-		Field[] fields = model.getClass().getDeclaredFields();
-		for (Field field : fields) {
-			try {
-				if (Modifier.isStatic(field.getModifiers())) continue;
-				Class<?> clz = field.getType();
-				if (List.class.isAssignableFrom(clz)) {
-					localizeTimestamp((List<?>) PropertyUtils.getProperty(model, field.getName()));
-				} else if (clz.isArray()) {
-					localizeTimestamp((Object[]) PropertyUtils.getProperty(model, field.getName()));
-				} else if (Data.class.isAssignableFrom(clz)) {
-					localizeTimestamp((Data<?>) PropertyUtils.getProperty(model, field.getName()));
-				}
-				
-				Converting converting = field.getAnnotation(Converting.class);
-				if (converting != null && converting.local()) {
-					Date date = (Date) PropertyUtils.getProperty(model, field.getName());
-					if (date != null) {
-						TimeZone localTimezone = WebContextHolder.getWebContext().getTimezone();
-						// solution 1: timezone offset
-						Calendar calendar = Calendar.getInstance(localTimezone);
-						calendar.setTime(date);
-						int timezoneOffset = (calendar.get(Calendar.ZONE_OFFSET) + calendar.get(Calendar.DST_OFFSET)) / (60 * 1000);
-						model.getTimezoneOffsets().put(field.getName(), timezoneOffset);
-						// solution 2: date formated at back-end
-						Locale locale = WebContextHolder.getWebContext().getLocale();
-						Format format = FormatManager.dateFormatOf(locale.toString(), converting.format().getName(), localTimezone);
-						model.getLocalDates().put(field.getName(), format.format(date));
-					}
-				}
-			} catch (IllegalAccessException | InvocationTargetException
-					| NoSuchMethodException e) {
-				logger.error("Failed to handle local date: " + field.getName(), e);
-			}
-		}
-	}
 }
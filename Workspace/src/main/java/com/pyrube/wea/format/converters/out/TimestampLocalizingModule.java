@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pyrube.wea.format.converters.out;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.pyrube.one.app.persistence.Data;
+import com.pyrube.wea.format.converters.out.TimestampLocalizingPlan.Localizer;
+import com.pyrube.wea.format.converters.out.TimestampLocalizingPlan.PlannedField;
+
+/**
+ * WEA Timestamp Localizing Module. While a <code>Data</code> model is being serialized, 
+ * the timezone offsets and the local date strings of its <code>Converting</code>.local 
+ * properties are written inline into its <code>timezoneOffsets</code> and 
+ * <code>localDates</code> properties. So the models are neither walked in advance 
+ * nor changed.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public class TimestampLocalizingModule extends SimpleModule {
+
+	/**
+	 * serial version uid
+	 */
+	private static final long serialVersionUID = -2873920417719285643L;
+	
+	/**
+	 * the properties of <code>Data</code> to hold timezone offsets and local dates
+	 */
+	private static final String PROPERTY_TIMEZONE_OFFSETS = "timezoneOffsets";
+	private static final String PROPERTY_LOCAL_DATES = "localDates";
+	
+	/**
+	 * the serializer provider attribute for the localizer of current serialization
+	 */
+	private static final Object ATTR_LOCALIZER = Localizer.class;
+
+	/**
+	 * constructor
+	 */
+	public TimestampLocalizingModule() {
+		super(TimestampLocalizingModule.class.getSimpleName());
+		this.setSerializerModifier(new BeanSerializerModifier() {
+			@Override
+			public List<BeanPropertyWriter> changeProperties(SerializationConfig config,
+					BeanDescription beanDesc, List<BeanPropertyWriter> beanProperties) {
+				Class<?> beanClass = beanDesc.getBeanClass();
+				if (!Data.class.isAssignableFrom(beanClass)) return beanProperties;
+				TimestampLocalizingPlan plan = TimestampLocalizingPlan.of(beanClass);
+				if (!plan.hasLocalDates()) return beanProperties;
+				for (int i = 0; i < beanProperties.size(); i++) {
+					BeanPropertyWriter writer = beanProperties.get(i);
+					if (PROPERTY_TIMEZONE_OFFSETS.equals(writer.getName())) {
+						beanProperties.set(i, new LocalDatesPropertyWriter(writer, plan, true));
+					} else if (PROPERTY_LOCAL_DATES.equals(writer.getName())) {
+						beanProperties.set(i, new LocalDatesPropertyWriter(writer, plan, false));
+					}
+				}
+				return beanProperties;
+			}
+		});
+	}
+
+	/**
+	 * returns the localizer of current serialization
+	 * @param prov
+	 * @return Localizer
+	 */
+	private static Localizer localizerOf(SerializerProvider prov) {
+		Localizer localizer = (Localizer) prov.getAttribute(ATTR_LOCALIZER);
+		if (localizer == null) {
+			localizer = new Localizer();
+			prov.setAttribute(ATTR_LOCALIZER, localizer);
+		}
+		return localizer;
+	}
+
+	/**
+	 * Property writer of <code>timezoneOffsets</code> or <code>localDates</code>. 
+	 * It writes the entries held by the model, then the ones of local dates, which replace 
+	 * the stale ones held by the model. If there are no local dates, it writes the property 
+	 * as the default writer does, honoring its inclusion settings.
+	 */
+	private static class LocalDatesPropertyWriter extends BeanPropertyWriter {
+
+		/**
+		 * serial version uid
+		 */
+		private static final long serialVersionUID = 4118702285472046013L;
+
+		/**
+		 * the timestamp localizing plan of the model class
+		 */
+		private final transient TimestampLocalizingPlan plan;
+		
+		/**
+		 * true for timezone offsets, false for local dates
+		 */
+		private final boolean offsets;
+
+		/**
+		 * constructor
+		 * @param base
+		 * @param plan
+		 * @param offsets
+		 */
+		LocalDatesPropertyWriter(BeanPropertyWriter base, TimestampLocalizingPlan plan, boolean offsets) {
+			super(base);
+			this.plan = plan;
+			this.offsets = offsets;
+		}
+
+		@Override
+		public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+			Localizer localizer = localizerOf(prov);
+			if (!localizer.isAvailable()) {
+				super.serializeAsField(bean, gen, prov);
+				return;
+			}
+			List<PlannedField> fields = null;
+			List<Date> dates = null;
+			for (PlannedField field : plan.getFields()) {
+				if (field.getKind() != TimestampLocalizingPlan.FIELD_KIND_LOCAL_DATE) continue;
+				Date date = (Date) field.valueOf(bean);
+				if (date == null) continue;
+				if (fields == null) {
+					fields = new ArrayList<PlannedField>();
+					dates = new ArrayList<Date>();
+				}
+				fields.add(field);
+				dates.add(date);
+			}
+			if (fields == null) {
+				// nothing to localize, the entries held by the model are written as usual
+				super.serializeAsField(bean, gen, prov);
+				return;
+			}
+			Map<?, ?> entries = (Map<?, ?>) get(bean);
+			gen.writeFieldName(_name);
+			gen.writeStartObject();
+			if (entries != null) {
+				// the entries computed from the local dates take precedence over the ones held by the model
+				Set<String> names = new HashSet<String>();
+				for (PlannedField field : fields) names.add(field.getName());
+				for (Map.Entry<?, ?> entry : entries.entrySet()) {
+					String key = String.valueOf(entry.getKey());
+					if (names.contains(key)) continue;
+					gen.writeFieldName(key);
+					prov.defaultSerializeValue(entry.getValue(), gen);
+				}
+			}
+			for (int i = 0; i < fields.size(); i++) {
+				writeLocalDate(gen, localizer, fields.get(i), dates.get(i));
+			}
+			gen.writeEndObject();
+		}
+
+		/**
+		 * writes the timezone offset or the local date string of a local date property
+		 */
+		private void writeLocalDate(JsonGenerator gen, Localizer localizer, PlannedField field, Date date) throws IOException {
+			gen.writeFieldName(field.getName());
+			if (offsets) {
+				gen.writeNumber(localizer.timezoneOffsetOf(date));
+			} else {
+				gen.writeString(localizer.format(field.getFormatName(), date));
+			}
+		}
+	}
+}
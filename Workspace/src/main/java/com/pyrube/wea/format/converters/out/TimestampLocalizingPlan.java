@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pyrube.wea.format.converters.out;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.text.Format;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.springframework.beans.BeanUtils;
+
+import com.pyrube.one.app.i18n.format.FormatManager;
+import com.pyrube.one.app.i18n.format.annotations.Converting;
+import com.pyrube.one.app.inquiry.SearchCriteria;
+import com.pyrube.one.app.logging.Logger;
+import com.pyrube.one.app.persistence.Data;
+import com.pyrube.wea.context.WebContext;
+import com.pyrube.wea.context.WebContextHolder;
+
+/**
+ * Timestamp localizing plan of a <code>Data</code> model class. It tells which 
+ * declared fields are nested <code>Data</code>, lists or arrays of <code>Data</code>, 
+ * or local dates (<code>Converting</code>.local), with their getters resolved in 
+ * advance. A plan is computed once per model class, so localizing the models does
+ * not need any reflection.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public class TimestampLocalizingPlan {
+	
+	/**
+	 * logger
+	 */
+	private static Logger logger = Logger.getInstance(TimestampLocalizingPlan.class.getName());
+	
+	/**
+	 * kinds of the field
+	 */
+	public static final int FIELD_KIND_DATA = 1;
+	public static final int FIELD_KIND_DATA_LIST = 2;
+	public static final int FIELD_KIND_DATA_ARRAY = 3;
+	public static final int FIELD_KIND_LOCAL_DATE = 4;
+	
+	/**
+	 * the plans, one per model class
+	 */
+	private static final ClassValue<TimestampLocalizingPlan> plans = new ClassValue<TimestampLocalizingPlan>() {
+		@Override
+		protected TimestampLocalizingPlan computeValue(Class<?> modelClass) {
+			return new TimestampLocalizingPlan(modelClass);
+		}
+	};
+	
+	/**
+	 * the getter type: (Object)Object
+	 */
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	
+	/**
+	 * the fields to be handled
+	 */
+	private final PlannedField[] fields;
+	
+	/**
+	 * returns the plan of the given model class
+	 * @param modelClass
+	 * @return TimestampLocalizingPlan
+	 */
+	public static TimestampLocalizingPlan of(Class<?> modelClass) {
+		return plans.get(modelClass);
+	}
+	
+	/**
+	 * constructor
+	 * @param modelClass
+	 */
+	private TimestampLocalizingPlan(Class<?> modelClass) {
+		List<PlannedField> plannedFields = new ArrayList<PlannedField>();
+		for (Field field : modelClass.getDeclaredFields()) {
+			if (Modifier.isStatic(field.getModifiers())) continue;
+			Class<?> clz = field.getType();
+			int kind = 0;
+			String formatName = null;
+			if (List.class.isAssignableFrom(clz)) {
+				kind = FIELD_KIND_DATA_LIST;
+			} else if (clz.isArray()) {
+				if (Data.class.isAssignableFrom(clz.getComponentType())) kind = FIELD_KIND_DATA_ARRAY;
+			} else if (Data.class.isAssignableFrom(clz)) {
+				kind = FIELD_KIND_DATA;
+			} else if (Date.class.isAssignableFrom(clz)) {
+				Converting converting = field.getAnnotation(Converting.class);
+				if (converting != null && converting.local()) {
+					kind = FIELD_KIND_LOCAL_DATE;
+					formatName = converting.format().getName();
+				}
+			}
+			if (kind == 0) continue;
+			MethodHandle getter = resolveGetter(modelClass, field.getName());
+			if (getter == null) {
+				logger.warn("No accessible getter found for local date or nested data: " + modelClass.getName() + "." + field.getName());
+				continue;
+			}
+			plannedFields.add(new PlannedField(field.getName(), kind, getter, formatName));
+		}
+		this.fields = plannedFields.toArray(new PlannedField[plannedFields.size()]);
+	}
+	
+	/**
+	 * resolves the getter of the given property as (Object)Object method handle
+	 * @param modelClass
+	 * @param propName
+	 * @return null if not found
+	 */
+	private static MethodHandle resolveGetter(Class<?> modelClass, String propName) {
+		PropertyDescriptor pd = BeanUtils.getPropertyDescriptor(modelClass, propName);
+		Method readMethod = (pd != null ? pd.getReadMethod() : null);
+		if (readMethod == null) return null;
+		try {
+			return MethodHandles.publicLookup().unreflect(readMethod).asType(GETTER_TYPE);
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * @return the fields to be handled
+	 */
+	public PlannedField[] getFields() {
+		return fields;
+	}
+	
+	/**
+	 * @return true if there is any local date in this model class
+	 */
+	public boolean hasLocalDates() {
+		for (PlannedField field : fields) {
+			if (field.kind == FIELD_KIND_LOCAL_DATE) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * @return true if nothing to be handled in this model class
+	 */
+	public boolean isEmpty() {
+		return fields.length == 0;
+	}
+	
+	/**
+	 * localizes the timestamp-converting properties in the given object if it is 
+	 * <code>SearchCriteria</code> (grid data) or <code>Data</code> (detailed data)
+	 * @param object
+	 */
+	public static void localize(Object object) {
+		if (object instanceof SearchCriteria) {
+			new Localizer().localize(((SearchCriteria<?>) object).getResults());
+		} else if (object instanceof Data) {
+			new Localizer().localize((Data<?>) object);
+		}
+	}
+	
+	/**
+	 * field in the plan
+	 */
+	public static class PlannedField {
+		private final String name;
+		private final int kind;
+		private final MethodHandle getter;
+		private final String formatName;
+		
+		/**
+		 * constructor
+		 */
+		private PlannedField(String name, int kind, MethodHandle getter, String formatName) {
+			this.name = name;
+			this.kind = kind;
+			this.getter = getter;
+			this.formatName = formatName;
+		}
+
+		/**
+		 * @return the field name
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the kind
+		 */
+		public int getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return the format name of the local date
+		 */
+		public String getFormatName() {
+			return formatName;
+		}
+		
+		/**
+		 * returns the field value of the given model
+		 * @param model
+		 * @return Object
+		 */
+		public Object valueOf(Object model) {
+			try {
+				return (Object) getter.invokeExact(model);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException("Failed to get property: " + name, e);
+			}
+		}
+	}
+	
+	/**
+	 * localizer for one response. the local timezone, locale, calendar and date formats
+	 * are resolved once and reused for all models.
+	 */
+	static class Localizer {
+		private TimeZone timezone = null;
+		private Locale locale = null;
+		private Calendar calendar = null;
+		private final Map<String, Format> formats = new HashMap<String, Format>();
+		
+		/**
+		 * localize the models
+		 * @param models
+		 */
+		void localize(List<?> models) {
+			if (models == null) return;
+			for (Object model : models) {
+				if (model instanceof Data) { localize((Data<?>) model); }
+			}
+		}
+		
+		/**
+		 * localize the models
+		 * @param models
+		 */
+		void localize(Object[] models) {
+			if (models == null) return;
+			for (Object model : models) {
+				if (model instanceof Data) { localize((Data<?>) model); }
+			}
+		}
+		
+		/**
+		 * localize a model with the plan of its class
+		 * @param model
+		 */
+		void localize(Data<?> model) {
+			if (model == null) return;
+			TimestampLocalizingPlan plan = TimestampLocalizingPlan.of(model.getClass());
+			for (PlannedField field : plan.fields) {
+				try {
+					Object value = field.valueOf(model);
+					switch (field.kind) {
+					case FIELD_KIND_DATA_LIST:
+						localize((List<?>) value);
+						break;
+					case FIELD_KIND_DATA_ARRAY:
+						localize((Object[]) value);
+						break;
+					case FIELD_KIND_DATA:
+						localize((Data<?>) value);
+						break;
+					case FIELD_KIND_LOCAL_DATE:
+						if (value != null && isAvailable()) {
+							Date date = (Date) value;
+							// solution 1: timezone offset
+							model.getTimezoneOffsets().put(field.name, timezoneOffsetOf(date));
+							// solution 2: date formated at back-end
+							model.getLocalDates().put(field.name, format(field.formatName, date));
+						}
+						break;
+					}
+				} catch (RuntimeException e) {
+					logger.error("Failed to handle local date: " + field.name, e);
+				}
+			}
+		}
+		
+		/**
+		 * resolves the local timezone and locale from current <code>WebContext</code> at first time
+		 * @return false if no <code>WebContext</code> found
+		 */
+		boolean isAvailable() {
+			if (timezone == null) {
+				WebContext webContext = WebContextHolder.getWebContext();
+				if (webContext == null) return false;
+				timezone = webContext.getTimezone();
+				locale = webContext.getLocale();
+				calendar = Calendar.getInstance(timezone);
+			}
+			return true;
+		}
+		
+		/**
+		 * returns the local timezone offset (in minutes) of the given date
+		 * @param date
+		 * @return int
+		 */
+		int timezoneOffsetOf(Date date) {
+			calendar.setTime(date);
+			return (calendar.get(Calendar.ZONE_OFFSET) + calendar.get(Calendar.DST_OFFSET)) / (60 * 1000);
+		}
+		
+		/**
+		 * formats the given date with the local date format of the given name
+		 * @param formatName
+		 * @param date
+		 * @return String
+		 */
+		String format(String formatName, Date date) {
+			Format format = formats.get(formatName);
+			if (format == null) {
+				format = FormatManager.dateFormatOf(locale.toString(), formatName, timezone);
+				formats.put(formatName, format);
+			}
+			return format.format(date);
+		}
+	}
+}
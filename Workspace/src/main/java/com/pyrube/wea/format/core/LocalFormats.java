@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pyrube.wea.format.core;
+
+import java.math.BigInteger;
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.Format;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+import com.pyrube.one.app.Apps;
+
+/**
+ * Thread-confined cache of the localized date and number formats. The formats 
+ * from <code>Apps.a.date.format</code> and <code>Apps.a.number.format</code> 
+ * are shared and not thread-safe, so each thread holds its own copies keyed by 
+ * (locale, format name or pattern, timezone). The shared formats are looked up only 
+ * when a thread misses, so looking up a cached format does not allocate anything. 
+ * All the copies are discarded by {@link #reset()}, which must be called once the 
+ * formats are reloaded. The thread-local values are JDK types only, so they do not 
+ * pin the WEA classes to the pooled threads after undeploying.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public class LocalFormats {
+	
+	/**
+	 * the key for no timezone
+	 */
+	private static final String NO_TIMEZONE = "";
+	
+	/**
+	 * the key for decimal formats parsing <code>BigDecimal</code>
+	 */
+	private static final String BIG_DECIMAL = "BigDecimal";
+	
+	/**
+	 * the default number format names by number type: {number type : format name}
+	 */
+	private static final Map<Class<?>, String> numberFormatNames;
+	
+	static {
+		Map<Class<?>, String> names = new HashMap<Class<?>, String>();
+		names.put(Byte.class, Apps.i18n.format.name.INTEGER);
+		names.put(Short.class, Apps.i18n.format.name.INTEGER);
+		names.put(Integer.class, Apps.i18n.format.name.INTEGER);
+		names.put(Long.class, Apps.i18n.format.name.INTEGER);
+		names.put(BigInteger.class, Apps.i18n.format.name.INTEGER);
+		numberFormatNames = Collections.unmodifiableMap(names);
+	}
+	
+	/**
+	 * the generation of all the cached formats. increase it to discard them.
+	 */
+	private static volatile int generation = 0;
+	
+	/**
+	 * the formats of current thread: [generation, {locale : {format name or pattern : {timezone : Format}}}]
+	 */
+	private static final ThreadLocal<Object[]> threadFormats = 
+			ThreadLocal.withInitial(() -> new Object[] { generation, new HashMap<String, Map<String, Map<String, Format>>>() });
+	
+	/**
+	 * constructor
+	 */
+	private LocalFormats() { }
+	
+	/**
+	 * returns the date format of current thread for the given locale, format name/pattern and timezone
+	 * @param localeCode
+	 * @param nameOrPattern
+	 * @param timezone null means the default
+	 * @return DateFormat
+	 */
+	public static DateFormat dateFormatOf(String localeCode, String nameOrPattern, TimeZone timezone) {
+		String timezoneId = (timezone == null) ? NO_TIMEZONE : timezone.getID();
+		Map<String, Format> formats = formatsOf(localeCode, nameOrPattern);
+		DateFormat format = (DateFormat) formats.get(timezoneId);
+		if (format == null) {
+			DateFormat shared = (timezone == null) 
+					? Apps.a.date.format.of(localeCode, nameOrPattern).value() 
+					: Apps.a.date.format.of(localeCode, nameOrPattern, timezone).value();
+			format = (DateFormat) shared.clone();
+			formats.put(timezoneId, format);
+		}
+		return format;
+	}
+	
+	/**
+	 * returns the number format of current thread for the given locale and format name/pattern
+	 * @param localeCode
+	 * @param nameOrPattern
+	 * @return DecimalFormat
+	 */
+	public static DecimalFormat numberFormatOf(String localeCode, String nameOrPattern) {
+		return numberFormatOf(localeCode, nameOrPattern, false);
+	}
+	
+	/**
+	 * returns the number format of current thread for the given locale and format name/pattern. 
+	 * it parses numbers into <code>BigDecimal</code>.
+	 * @param localeCode
+	 * @param nameOrPattern
+	 * @return DecimalFormat
+	 */
+	public static DecimalFormat bigDecimalFormatOf(String localeCode, String nameOrPattern) {
+		return numberFormatOf(localeCode, nameOrPattern, true);
+	}
+	
+	/**
+	 * returns the number format of current thread
+	 */
+	private static DecimalFormat numberFormatOf(String localeCode, String nameOrPattern, boolean parseBigDecimal) {
+		String key = parseBigDecimal ? BIG_DECIMAL : NO_TIMEZONE;
+		Map<String, Format> formats = formatsOf(localeCode, nameOrPattern);
+		DecimalFormat format = (DecimalFormat) formats.get(key);
+		if (format == null) {
+			format = (DecimalFormat) ((DecimalFormat) Apps.a.number.format.of(localeCode, nameOrPattern).value()).clone();
+			format.setParseBigDecimal(parseBigDecimal);
+			formats.put(key, format);
+		}
+		return format;
+	}
+	
+	/**
+	 * returns the default format name for the given number, that is the integer format 
+	 * for integral numbers and the float format for the others
+	 * @param number
+	 * @return String
+	 */
+	public static String numberFormatNameOf(Number number) {
+		String name = numberFormatNames.get(number.getClass());
+		if (name != null) return name;
+		return (number instanceof BigInteger) ? Apps.i18n.format.name.INTEGER : Apps.i18n.format.name.FLOAT;
+	}
+	
+	/**
+	 * discards all the cached formats. it should be called once the formats are reloaded, 
+	 * and it is called by <code>WeaConfigLoader</code> when the application starts up or shuts down.
+	 */
+	public static synchronized void reset() {
+		generation++;
+	}
+	
+	/**
+	 * returns the formats of current thread for the given locale and format name/pattern. 
+	 * the formats of an earlier generation are discarded first.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<String, Format> formatsOf(String localeCode, String nameOrPattern) {
+		Object[] threadValue = threadFormats.get();
+		Map<String, Map<String, Map<String, Format>>> formats = (Map<String, Map<String, Map<String, Format>>>) threadValue[1];
+		int currentGeneration = generation;
+		if (((Integer) threadValue[0]).intValue() != currentGeneration) {
+			formats.clear();
+			threadValue[0] = currentGeneration;
+		}
+		Map<String, Map<String, Format>> localeFormats = formats.get(localeCode);
+		if (localeFormats == null) {
+			localeFormats = new HashMap<String, Map<String, Format>>();
+			formats.put(localeCode, localeFormats);
+		}
+		Map<String, Format> namedFormats = localeFormats.get(nameOrPattern);
+		if (namedFormats == null) {
+			namedFormats = new HashMap<String, Format>(4);
+			localeFormats.put(nameOrPattern, namedFormats);
+		}
+		return namedFormats;
+	}
+}
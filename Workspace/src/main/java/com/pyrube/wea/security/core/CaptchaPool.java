@@ -0,0 +1,330 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+
+package com.pyrube.wea.security.core;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.imageio.ImageIO;
+
+import com.pyrube.one.app.logging.Logger;
+import com.pyrube.wea.WeaConfig;
+import com.pyrube.wea.WeaConfig.Captcha;
+
+/**
+ * a bounded pool of pre-rendered captcha images. images are rendered by a background 
+ * thread whenever the pool drops to the refill threshold, so a request only takes one 
+ * out of the pool. if the pool is empty (or disabled with pool size 0), the image is 
+ * rendered on the request thread.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public class CaptchaPool {
+	
+	/**
+	 * logger
+	 */
+	private static Logger logger = Logger.getInstance(CaptchaPool.class.getName());
+
+	/**
+	 * the captcha pool of the current captcha settings
+	 */
+	private static volatile CaptchaPool captchaPool = null;
+
+	/**
+	 * the captcha settings
+	 */
+	private final Captcha captcha;
+	
+	/**
+	 * the font to draw the captcha code
+	 */
+	private final Font font;
+	
+	/**
+	 * the pre-rendered images. null if the pool is disabled
+	 */
+	private final ArrayBlockingQueue<CaptchaImage> images;
+	
+	/**
+	 * the background refilling thread
+	 */
+	private final ExecutorService refiller;
+	
+	/**
+	 * whether a refilling is submitted and not finished yet
+	 */
+	private final AtomicBoolean refilling = new AtomicBoolean(false);
+	
+	/**
+	 * metrics
+	 */
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+
+	/**
+	 * returns the captcha pool of the current captcha settings. 
+	 * the pool is rebuilt if the WEA configuration is reloaded.
+	 * @return CaptchaPool
+	 */
+	public static CaptchaPool getInstance() {
+		Captcha captcha = WeaConfig.getWeaConfig().getCaptcha();
+		CaptchaPool pool = captchaPool;
+		if (pool == null || pool.captcha != captcha) {
+			synchronized(CaptchaPool.class) {
+				pool = captchaPool;
+				if (pool == null || pool.captcha != captcha) {
+					if (pool != null) pool.shutdown();
+					pool = new CaptchaPool(captcha);
+					captchaPool = pool;
+				}
+			}
+		}
+		return(pool);
+	}
+	
+	/**
+	 * shuts down the current captcha pool, so its refiller thread does not outlive the 
+	 * application. it is called by <code>WeaConfigLoader</code> when the application shuts 
+	 * down, and a new pool is built on demand.
+	 */
+	public static void shutdownInstance() {
+		synchronized(CaptchaPool.class) {
+			CaptchaPool pool = captchaPool;
+			captchaPool = null;
+			if (pool != null) pool.shutdown();
+		}
+	}
+	
+	/**
+	 * constructor
+	 * @param captcha the captcha settings
+	 */
+	private CaptchaPool(Captcha captcha) {
+		this.captcha = captcha;
+		this.font = new Font("Fixedsys", Font.BOLD, captcha.getFontSize());
+		if (captcha.getPoolSize() > 0) {
+			this.images = new ArrayBlockingQueue<CaptchaImage>(captcha.getPoolSize());
+			this.refiller = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "wea-captcha-refiller");
+				t.setDaemon(true);
+				return(t);
+			});
+			requestRefill();
+		} else {
+			this.images = null;
+			this.refiller = null;
+		}
+	}
+	
+	/**
+	 * takes a captcha image out of the pool. it is rendered on the calling thread if the 
+	 * pool is empty.
+	 * @return CaptchaImage
+	 * @throws IOException
+	 */
+	public CaptchaImage take() throws IOException {
+		if (images != null) {
+			long now = System.currentTimeMillis();
+			CaptchaImage image;
+			while ((image = images.poll()) != null) {
+				if (!image.isExpired(now, captcha.getPoolTtl())) break;
+				expirations.increment();
+			}
+			if (images.size() <= captcha.getPoolRefillThreshold()) requestRefill();
+			if (image != null) {
+				hits.increment();
+				return(image);
+			}
+		}
+		misses.increment();
+		return(render());
+	}
+	
+	/**
+	 * submits a refilling if none is running
+	 */
+	private void requestRefill() {
+		if (refilling.compareAndSet(false, true)) {
+			try {
+				refiller.execute(this::refill);
+			} catch (RuntimeException e) {
+				refilling.set(false);
+				logger.warn("Failed to submit captcha refilling.", e);
+			}
+		}
+	}
+	
+	/**
+	 * renders images until the pool is full
+	 */
+	private void refill() {
+		try {
+			while (images.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+				if (!images.offer(render())) break;
+			}
+		} catch (Exception e) {
+			logger.warn("Failed to refill captcha pool.", e);
+		} finally {
+			refilling.set(false);
+		}
+	}
+	
+	/**
+	 * renders a new captcha image
+	 * @return CaptchaImage
+	 * @throws IOException
+	 */
+	private CaptchaImage render() throws IOException {
+		int width = captcha.getImageWidth();
+		int height = captcha.getImageHeight();
+		BufferedImage bufImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics gd = bufImage.getGraphics();
+		Random random = ThreadLocalRandom.current();
+		try {
+			gd.setColor(Color.WHITE);
+			gd.fillRect(0, 0, width, height);
+	
+			gd.setFont(font);
+	
+			gd.setColor(Color.GRAY);
+			gd.drawRect(0, 0, width - 1, height - 1);
+	
+			gd.setColor(Color.BLACK);
+			for (int i = 0; i < 50; i++) {
+				int x = random.nextInt(width);
+				int y = random.nextInt(height);
+				int xl = random.nextInt(12);
+				int yl = random.nextInt(12);
+				gd.drawLine(x, y, x + xl, y + yl);
+			}
+	
+			char[] availableChars = captcha.getAvailableChars();
+			char[] code = new char[captcha.getCodeLength()];
+			for (int i = 0; i < code.length; i++) {
+				code[i] = availableChars[random.nextInt(availableChars.length)];
+				gd.setColor(new Color(random.nextInt(255), random.nextInt(255), random.nextInt(255)));
+				gd.drawChars(code, i, 1, (i + 1) * captcha.getCharWidth(), captcha.getCharPosY());
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream(2048);
+			ImageIO.write(bufImage, "png", out);
+			return(new CaptchaImage(new String(code), out.toByteArray()));
+		} finally {
+			gd.dispose();
+		}
+	}
+	
+	/**
+	 * stops the background refilling and discards the pre-rendered images
+	 */
+	public void shutdown() {
+		if (refiller != null) refiller.shutdownNow();
+		if (images != null) images.clear();
+	}
+
+	/**
+	 * returns the number of the pre-rendered images
+	 * @return int
+	 */
+	public int size() {
+		return(images != null ? images.size() : 0);
+	}
+
+	/**
+	 * returns the number of the images taken out of the pool
+	 * @return long
+	 */
+	public long getHits() {
+		return(hits.sum());
+	}
+
+	/**
+	 * returns the number of the images rendered on the request thread
+	 * @return long
+	 */
+	public long getMisses() {
+		return(misses.sum());
+	}
+
+	/**
+	 * returns the number of the images discarded due to expiration
+	 * @return long
+	 */
+	public long getExpirations() {
+		return(expirations.sum());
+	}
+
+	/**
+	 * a rendered captcha image (PNG) with its code
+	 */
+	public static final class CaptchaImage {
+		private final String code;
+		private final byte[] bytes;
+		private final long createdTime;
+		
+		/**
+		 * constructor
+		 * @param code
+		 * @param bytes
+		 */
+		CaptchaImage(String code, byte[] bytes) {
+			this.code = code;
+			this.bytes = bytes;
+			this.createdTime = System.currentTimeMillis();
+		}
+
+		/**
+		 * @return the code
+		 */
+		public String getCode() {
+			return code;
+		}
+
+		/**
+		 * @return the PNG bytes
+		 */
+		public byte[] getBytes() {
+			return bytes;
+		}
+		
+		/**
+		 * whether this image is older than the given ttl (in seconds). 
+		 * a ttl not greater than 0 means never expired.
+		 * @param now
+		 * @param ttl
+		 * @return boolean
+		 */
+		boolean isExpired(long now, int ttl) {
+			return(ttl > 0 && now - createdTime > ttl * 1000L);
+		}
+	}
+}
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+
+package com.pyrube.wea.security.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.pyrube.one.app.logging.Logger;
+import com.pyrube.one.lang.Strings;
+import com.pyrube.wea.WeaConfig;
+import com.pyrube.wea.WeaConfig.Captcha;
+
+/**
+ * stateless captcha tokens. a token is <code>expires.nonce.seal.signature</code>, where the 
+ * seal is the HMAC-SHA256 of the expiry time and the nonce, and the signature is the one 
+ * of them together with the captcha code, so the code itself is never carried to the client 
+ * and nothing is held in the session. like a captcha in the session, a token allows one 
+ * guess only: once its seal is verified, its nonce is consumed before the code is compared, 
+ * and it is held in a bounded replay guard until it expires. the guard is sized to hold all 
+ * the tokens issued within a ttl at the peak issue rate. a nonce is never evicted before 
+ * it expires, so while the guard is full of unexpired nonces, no token is accepted.
+ * <br>
+ * if no secret is configured, a random one is generated per JVM, then tokens can only 
+ * be verified by the server which issued them.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public class CaptchaTokens {
+	
+	/**
+	 * logger
+	 */
+	private static Logger logger = Logger.getInstance(CaptchaTokens.class.getName());
+	
+	/**
+	 * the signature algorithm
+	 */
+	private static final String ALGORITHM = "HmacSHA256";
+	
+	/**
+	 * the separator of the token parts
+	 */
+	private static final char SEPARATOR = '.';
+
+	/**
+	 * the captcha tokens of the current captcha settings
+	 */
+	private static volatile CaptchaTokens captchaTokens = null;
+	
+	/**
+	 * the random source of nonces and the generated secret
+	 */
+	private static final SecureRandom random = new SecureRandom();
+	
+	/**
+	 * the captcha settings
+	 */
+	private final Captcha captcha;
+	
+	/**
+	 * the signing key
+	 */
+	private final SecretKeySpec key;
+	
+	/**
+	 * the maximum number of the consumed nonces held
+	 */
+	private final int guardSize;
+	
+	/**
+	 * the nonces of the consumed tokens: {nonce : expires}
+	 */
+	private final Map<String, Long> usedNonces = new ConcurrentHashMap<String, Long>();
+
+	/**
+	 * returns the captcha tokens of the current captcha settings. 
+	 * they are rebuilt if the WEA configuration is reloaded.
+	 * @return CaptchaTokens
+	 */
+	public static CaptchaTokens getInstance() {
+		Captcha captcha = WeaConfig.getWeaConfig().getCaptcha();
+		CaptchaTokens tokens = captchaTokens;
+		if (tokens == null || tokens.captcha != captcha) {
+			synchronized(CaptchaTokens.class) {
+				tokens = captchaTokens;
+				if (tokens == null || tokens.captcha != captcha) {
+					tokens = new CaptchaTokens(captcha);
+					captchaTokens = tokens;
+				}
+			}
+		}
+		return(tokens);
+	}
+	
+	/**
+	 * constructor
+	 * @param captcha the captcha settings
+	 */
+	private CaptchaTokens(Captcha captcha) {
+		this.captcha = captcha;
+		byte[] secret;
+		if (!Strings.isEmpty(captcha.getTokenSecret())) {
+			secret = captcha.getTokenSecret().getBytes(StandardCharsets.UTF_8);
+		} else {
+			secret = new byte[32];
+			random.nextBytes(secret);
+			logger.warn("No captcha token secret is configured. A random one is used, and tokens are verifiable on this server only.");
+		}
+		this.key = new SecretKeySpec(secret, ALGORITHM);
+		this.guardSize = (captcha.getTokenReplayGuardSize() > 0) ? captcha.getTokenReplayGuardSize() 
+				: (int) Math.min(Integer.MAX_VALUE, (long) captcha.getTokenIssueRate() * captcha.getTokenTtl());
+	}
+	
+	/**
+	 * issues a token for the given captcha code
+	 * @param code the captcha code
+	 * @return String
+	 */
+	public String issue(String code) {
+		byte[] nonceBytes = new byte[12];
+		random.nextBytes(nonceBytes);
+		String nonce = Base64.getUrlEncoder().withoutPadding().encodeToString(nonceBytes);
+		long expires = System.currentTimeMillis() + captcha.getTokenTtl() * 1000L;
+		String payload = Long.toString(expires, 36) + SEPARATOR + nonce;
+		return(payload + SEPARATOR + sign(payload, null) + SEPARATOR + sign(payload, code));
+	}
+	
+	/**
+	 * verifies the given token with the captcha code input by user. a token is consumed 
+	 * by its first verification, whether the code matches or not.
+	 * @param token
+	 * @param code the captcha code input by user
+	 * @return boolean
+	 */
+	public boolean verify(String token, String code) {
+		if (Strings.isEmpty(token) || code == null) return false;
+		String[] parts = token.split("\\" + SEPARATOR, -1);
+		if (parts.length != 4) return false;
+		long expires;
+		try {
+			expires = Long.parseLong(parts[0], 36);
+		} catch (NumberFormatException e) {
+			return false;
+		}
+		long now = System.currentTimeMillis();
+		if (expires < now) return false;
+		String payload = parts[0] + SEPARATOR + parts[1];
+		if (!matches(sign(payload, null), parts[2])) return false;
+		if (!consume(parts[1], expires, now)) return false;
+		return(matches(sign(payload, code), parts[3]));
+	}
+	
+	/**
+	 * compares the given signatures in constant time
+	 * @param expected
+	 * @param actual
+	 * @return boolean
+	 */
+	private static boolean matches(String expected, String actual) {
+		return(MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII), actual.getBytes(StandardCharsets.US_ASCII)));
+	}
+	
+	/**
+	 * consumes the nonce of a token, and holds it until the token expires. if the guard 
+	 * is full, the nonces expired by their signed expiry are dropped. a nonce not expired 
+	 * is never evicted, since it could be replayed then, so the token is rejected if the 
+	 * guard is still full.
+	 * @param nonce
+	 * @param expires
+	 * @param now
+	 * @return boolean false if the nonce is consumed already or the guard is full
+	 */
+	private boolean consume(String nonce, long expires, long now) {
+		if (usedNonces.size() >= guardSize) {
+			Iterator<Long> it = usedNonces.values().iterator();
+			while (it.hasNext()) {
+				if (it.next() < now) it.remove();
+			}
+			if (usedNonces.size() >= guardSize) {
+				logger.warn("Captcha token replay guard is full. The token is rejected.");
+				return false;
+			}
+		}
+		return(usedNonces.putIfAbsent(nonce, expires) == null);
+	}
+	
+	/**
+	 * signs the given payload with the captcha code (case-insensitive)
+	 * @param payload
+	 * @param code null to seal the payload only
+	 * @return String
+	 */
+	private String sign(String payload, String code) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(key);
+			mac.update(payload.getBytes(StandardCharsets.US_ASCII));
+			if (code != null) {
+				mac.update((byte) SEPARATOR);
+				mac.update(code.toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+			}
+			byte[] signature = mac.doFinal();
+			return(Base64.getUrlEncoder().withoutPadding().encodeToString(signature));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Failed to sign captcha token.", e);
+		}
+	}
+}
@@ -32,6 +32,7 @@ import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import com.pyrube.one.lang.Strings;
 import com.pyrube.wea.WeaConfig;
+import com.pyrube.wea.WeaConfig.Captcha;
 import com.pyrube.wea.util.Weas;
 
 /**
@@ -47,8 +48,12 @@ public class MoreSecureAuthenticationFilter extends UsernamePasswordAuthenticati
 
 	public static final String SPRING_SECURITY_FORM_CAPTCHA_KEY = "captcha";
 
+	public static final String SPRING_SECURITY_FORM_CAPTCHA_TOKEN_KEY = "captchaToken";
+
 	private String captchaParameter = SPRING_SECURITY_FORM_CAPTCHA_KEY;
 
+	private String captchaTokenParameter = SPRING_SECURITY_FORM_CAPTCHA_TOKEN_KEY;
+
 	/**
 	 * request matcher. null means for all
 	 */
@@ -76,7 +81,8 @@ public class MoreSecureAuthenticationFilter extends UsernamePasswordAuthenticati
 	public Authentication attemptAuthentication(HttpServletRequest request,
 		HttpServletResponse response) throws AuthenticationException {
 		
-		if (WeaConfig.getWeaConfig().getCaptcha().isEnabled()) {
+		Captcha captchaCfg = WeaConfig.getWeaConfig().getCaptcha();
+		if (captchaCfg.isEnabled()) {
 
 			String captcha = obtainCaptcha(request);
 			
@@ -86,7 +92,14 @@ public class MoreSecureAuthenticationFilter extends UsernamePasswordAuthenticati
 			
 			captcha = captcha.trim();
 			
-			if (!Weas.validateCaptcha(request, captcha)) {
+			if (captchaCfg.isStateless()) {
+				String token = obtainCaptchaToken(request);
+				// a token is single-use
+				Weas.removeCaptchaTokenCookie(request, response);
+				if (!CaptchaTokens.getInstance().verify(token, captcha)) {
+					throw new BadCaptchaException("Captcha is invalid.");
+				}
+			} else if (!Weas.validateCaptcha(request, captcha)) {
 				throw new BadCaptchaException("Captcha is invalid.");
 			}
 		}
@@ -106,6 +119,20 @@ public class MoreSecureAuthenticationFilter extends UsernamePasswordAuthenticati
 	protected String obtainCaptcha(HttpServletRequest request) {
 		return request.getParameter(captchaParameter);
 	}
+
+	/**
+	 * Enables subclasses to override where the stateless captcha token is obtained. 
+	 * it is the request parameter (hidden field), or the cookie if no such parameter.
+	 *
+	 * @param request so that request attributes can be retrieved
+	 *
+	 * @return the stateless captcha token
+	 */
+	protected String obtainCaptchaToken(HttpServletRequest request) {
+		String token = request.getParameter(captchaTokenParameter);
+		if (Strings.isEmpty(token)) token = Weas.getCaptchaTokenCookieValue(request);
+		return token;
+	}
 	
 	/**
 	 * 
@@ -19,6 +19,7 @@ package com.pyrube.wea.security.core;
 import org.springframework.security.authentication.AnonymousAuthenticationProvider;
 import org.springframework.security.web.util.matcher.RequestMatcher;
 
+import com.pyrube.wea.context.WebContext;
 import com.pyrube.wea.context.WebContextHolder;
 
 /**
@@ -47,9 +48,12 @@ public class WeaAnonymousAuthenticationProvider extends AnonymousAuthenticationP
 	 * check 
 	 */
 	public boolean supports(Class<?> authentication) {
-		if (requestMatcher != null && 
-				(!requestMatcher.matches(WebContextHolder.getWebContext().getRequest()))) {
-			return false;
+		if (requestMatcher != null) {
+			// no web context for the excluded requests, nothing to match
+			WebContext webCtx = WebContextHolder.getWebContext();
+			if (webCtx == null || !requestMatcher.matches(webCtx.getRequest())) {
+				return false;
+			}
 		}
 		return super.supports(authentication);
 	}
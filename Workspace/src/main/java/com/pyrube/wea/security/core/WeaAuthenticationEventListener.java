@@ -100,6 +100,10 @@ public class WeaAuthenticationEventListener implements ApplicationListener<Abstr
 		}
 		
 		WebContext ctx = WebContextHolder.getWebContext();
+		if (ctx == null) {
+			logger.warn("No web context is bound for the signon request. Is it excluded by WeaAuthenticationWebContextFilter?");
+			return;
+		}
 		HttpServletRequest request = ctx.getRequest();
 		HttpServletResponse response = ctx.getResponse();
 		
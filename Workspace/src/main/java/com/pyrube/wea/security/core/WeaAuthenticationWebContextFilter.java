@@ -25,7 +25,10 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
 import org.springframework.web.filter.GenericFilterBean;
+import org.springframework.web.util.UrlPathHelper;
 
 import com.pyrube.one.app.logging.Logger;
 import com.pyrube.wea.context.WebContext;
@@ -38,7 +41,14 @@ import com.pyrube.wea.context.WebContextHolder;
  *  <http>
  *    <custom-filter before="LOGOUT_FILTER" ref="weaAuthenticationWebContextFilter"/>
  *  </http>
- *  <beans:bean id="weaAuthenticationWebContextFilter" class="com.pyrube.wea.security.core.WeaAuthenticationWebContextFilter"/>
+ *  <beans:bean id="weaAuthenticationWebContextFilter" class="com.pyrube.wea.security.core.WeaAuthenticationWebContextFilter">
+ *    <!-- optional. if true, locale, timezone, theme, etc. are resolved when they are accessed first time -->
+ *    <beans:property name="lazy" value="true"/>
+ *    <!-- optional. no web context is bound for the requests matching these (ant-style) path patterns. 
+ *         they must serve static content only: the controllers, tags, converters and 
+ *         signon handling expect a web context, and most of them do not check it -->
+ *    <beans:property name="excludedPatterns" value="/static/**,/favicon.ico"/>
+ *  </beans:bean>
  * </pre>
  * 
  * @author Aranjuez
@@ -52,6 +62,26 @@ public class WeaAuthenticationWebContextFilter extends GenericFilterBean {
 	 */
 	private static Logger logger = Logger.getInstance(WeaAuthenticationWebContextFilter.class.getName());
 	
+	/**
+	 * whether the facets of web context are resolved lazily
+	 */
+	private boolean lazy = false;
+	
+	/**
+	 * path patterns of the requests for which no web context is bound
+	 */
+	private String[] excludedPatterns = null;
+	
+	/**
+	 * path matcher for the excluded patterns
+	 */
+	private PathMatcher pathMatcher = new AntPathMatcher();
+	
+	/**
+	 * url path helper to get the path within application
+	 */
+	private UrlPathHelper urlPathHelper = new UrlPathHelper();
+	
 	/**
 	 * constructor
 	 */
@@ -68,7 +98,12 @@ public class WeaAuthenticationWebContextFilter extends GenericFilterBean {
 			logger.debug("Request info: requestUri=" + req.getRequestURI() + "; contextPath=" + req.getContextPath() + 
 					"; servletPath=" + req.getServletPath() + "; pathInfo=" + req.getPathInfo() + "; queryString=" + req.getQueryString());
 		}
-		WebContextHolder.setWebContext(new WebContext((HttpServletRequest) request, (HttpServletResponse) response));
+		if (isExcluded((HttpServletRequest) request)) {
+			if (logger.isDebugEnabled()) logger.debug("Request is excluded. No web context is bound.");
+			chain.doFilter(request, response);
+			return;
+		}
+		WebContextHolder.setWebContext(new WebContext((HttpServletRequest) request, (HttpServletResponse) response, lazy));
 		try {
 			chain.doFilter(request, response);
 		} catch (ServletException e) {
@@ -83,8 +118,50 @@ public class WeaAuthenticationWebContextFilter extends GenericFilterBean {
 		}
 	}
 
+	/**
+	 * checks whether the request matches one of the excluded patterns
+	 * @param request
+	 * @return boolean
+	 */
+	private boolean isExcluded(HttpServletRequest request) {
+		if (excludedPatterns == null || excludedPatterns.length == 0) return false;
+		String path = urlPathHelper.getPathWithinApplication(request);
+		for (String pattern : excludedPatterns) {
+			if (pathMatcher.match(pattern, path)) return true;
+		}
+		return false;
+	}
+
 	@Override
 	protected void initFilterBean() throws ServletException {
 	}
+
+	/**
+	 * @return the lazy
+	 */
+	public boolean isLazy() {
+		return lazy;
+	}
+
+	/**
+	 * @param lazy the lazy to set
+	 */
+	public void setLazy(boolean lazy) {
+		this.lazy = lazy;
+	}
+
+	/**
+	 * @return the excludedPatterns
+	 */
+	public String[] getExcludedPatterns() {
+		return excludedPatterns;
+	}
+
+	/**
+	 * @param excludedPatterns the excludedPatterns to set
+	 */
+	public void setExcludedPatterns(String[] excludedPatterns) {
+		this.excludedPatterns = excludedPatterns;
+	}
 	
 }
@@ -30,6 +30,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import com.pyrube.one.app.Apps;
 import com.pyrube.one.app.user.User;
 import com.pyrube.wea.WeaConstants;
+import com.pyrube.wea.context.WebContext;
 import com.pyrube.wea.context.WebContextHolder;
 
 /**
@@ -61,8 +62,11 @@ public class WeaDaoAuthenticationProvider extends DaoAuthenticationProvider {
 	@Override
 	public boolean supports(Class<?> authentication) {
 		if (requestMatcher != null) {
+			// no web context for the excluded requests, nothing to match
+			WebContext webCtx = WebContextHolder.getWebContext();
+			if (webCtx == null) return false;
 			requestMatcher.setAuthentication(authentication);
-			if (!requestMatcher.matches(WebContextHolder.getWebContext().getRequest())) {
+			if (!requestMatcher.matches(webCtx.getRequest())) {
 				return false;
 			}
 		}
@@ -117,6 +121,9 @@ public class WeaDaoAuthenticationProvider extends DaoAuthenticationProvider {
 			}
 			((WeaUserDetails) user).moreUserRights(rightsBeforeProfileModification);
 		}
+		// the user authorities may be changed, so the access decisions made in this request are out of date
+		WebContext webCtx = WebContextHolder.getWebContext();
+		if (webCtx != null) webCtx.clearAccessDecisions();
 		return super.createSuccessAuthentication(principal, authentication, user);
 	}
 
@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+
+package com.pyrube.wea.session;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.pyrube.one.app.logging.Logger;
+
+/**
+ * a resumable upload of a file in fixed-size chunks. the chunks can be accepted in any 
+ * order and in parallel, each is written at its offset of a temp file, which is opened 
+ * per chunk, so an idle upload holds no file descriptor. the upload is completed once 
+ * all the chunks are received.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public class ChunkedUpload {
+	
+	/**
+	 * logger
+	 */
+	private static Logger logger = Logger.getInstance(ChunkedUpload.class.getName());
+	
+	/**
+	 * the upload id
+	 */
+	private final String uploadId;
+	
+	/**
+	 * the owner (user) who started it. it could be null
+	 */
+	private final String owner;
+	
+	/**
+	 * the original file name
+	 */
+	private final String fileName;
+	
+	/**
+	 * the file size
+	 */
+	private final long size;
+	
+	/**
+	 * the chunk size
+	 */
+	private final int chunkSize;
+	
+	/**
+	 * the number of chunks
+	 */
+	private final int chunkCount;
+	
+	/**
+	 * the temp file the chunks are written into
+	 */
+	private final Path file;
+	
+	/**
+	 * the chunks received. it grows with the chunks actually received
+	 */
+	private final BitSet receivedChunks;
+	
+	/**
+	 * the bytes received
+	 */
+	private long receivedBytes = 0;
+	
+	/**
+	 * the upload progress
+	 */
+	private final UploadProgress progress;
+	
+	/**
+	 * whether it is completed
+	 */
+	private volatile boolean completed = false;
+	
+	/**
+	 * the last time a chunk is received
+	 */
+	private volatile long updatedTime = System.currentTimeMillis();
+
+	/**
+	 * constructor
+	 * @param uploadId
+	 * @param owner the owner. it could be null
+	 * @param fileName
+	 * @param size
+	 * @param chunkSize
+	 * @param file the temp file
+	 */
+	ChunkedUpload(String uploadId, String owner, String fileName, long size, int chunkSize, Path file) {
+		this.uploadId = uploadId;
+		this.owner = owner;
+		this.fileName = fileName;
+		this.size = size;
+		this.chunkSize = chunkSize;
+		this.chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+		this.file = file;
+		this.receivedChunks = new BitSet();
+		this.progress = UploadProgressRegistry.start(uploadId);
+	}
+	
+	/**
+	 * writes the chunk at the given offset from the given source. a chunk received 
+	 * already is overwritten.
+	 * @param offset the chunk offset, a multiple of the chunk size
+	 * @param src the chunk bytes
+	 * @throws EOFException if the source ends before the chunk is filled
+	 * @throws IOException if the chunk cannot be written
+	 * @throws IllegalArgumentException if the offset is invalid
+	 * @throws IllegalStateException if the upload is completed
+	 */
+	public void write(long offset, ReadableByteChannel src) throws IOException {
+		if (completed) throw new IllegalStateException("Upload " + uploadId + " is completed.");
+		if (offset < 0 || offset >= size || offset % chunkSize != 0) {
+			throw new IllegalArgumentException("Invalid chunk offset " + offset + " of upload " + uploadId);
+		}
+		long length = Math.min(chunkSize, size - offset);
+		long written = 0;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			long n;
+			while (written < length && (n = channel.transferFrom(src, offset + written, length - written)) > 0) {
+				written += n;
+			}
+		}
+		if (written < length) throw new EOFException("Chunk at " + offset + " of upload " + uploadId + " is incomplete.");
+		int index = (int) (offset / chunkSize);
+		synchronized(this) {
+			if (!receivedChunks.get(index)) {
+				receivedChunks.set(index);
+				receivedBytes += length;
+			}
+			progress.update(receivedBytes, size);
+		}
+		updatedTime = System.currentTimeMillis();
+	}
+	
+	/**
+	 * completes the upload. all the chunks must have been received.
+	 * @return the assembled file
+	 * @throws IOException
+	 * @throws IllegalStateException if any chunk is missing
+	 */
+	public synchronized Path complete() throws IOException {
+		if (!completed) {
+			if (receivedChunks.cardinality() < chunkCount) {
+				throw new IllegalStateException("Upload " + uploadId + " has " + (chunkCount - receivedChunks.cardinality()) + " chunks missing.");
+			}
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				channel.force(false);
+			}
+			completed = true;
+			updatedTime = System.currentTimeMillis();
+			UploadProgressRegistry.complete(progress);
+		}
+		return file;
+	}
+	
+	/**
+	 * discards the upload and deletes the temp file
+	 */
+	void discard() {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			logger.warn("Failed to delete " + file, e);
+		}
+		UploadProgressRegistry.remove(uploadId);
+	}
+	
+	/**
+	 * returns the status for the client to resume the upload
+	 * @return Map
+	 */
+	public synchronized Map<String, Object> getStatus() {
+		Map<String, Object> status = new LinkedHashMap<String, Object>();
+		status.put("uploadId", uploadId);
+		status.put("fileName", fileName);
+		status.put("size", size);
+		status.put("chunkSize", chunkSize);
+		status.put("receivedChunks", receivedChunks.stream().toArray());
+		status.put("receivedBytes", receivedBytes);
+		status.put("completed", completed);
+		return status;
+	}
+
+	/**
+	 * @return the uploadId
+	 */
+	public String getUploadId() {
+		return uploadId;
+	}
+
+	/**
+	 * @return the owner
+	 */
+	public String getOwner() {
+		return owner;
+	}
+
+	/**
+	 * @return the fileName
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * @return the size
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the chunkSize
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * @return the file
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * @return the completed
+	 */
+	public boolean isCompleted() {
+		return completed;
+	}
+
+	/**
+	 * @return the updatedTime
+	 */
+	public long getUpdatedTime() {
+		return updatedTime;
+	}
+}
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+
+package com.pyrube.wea.session;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * an in-memory registry of the resumable chunked uploads keyed by upload id. 
+ * the client initializes an upload, puts the chunks (in parallel, and again after a 
+ * dropped connection), and completes it. then the application takes the assembled 
+ * file by the upload id. an upload not updated within the ttl is discarded with its 
+ * temp file, and an owner (user) can hold a limited number of uploads not completed. 
+ * the file size, the chunk size and the number of chunks are bounded, so an upload 
+ * started by a request costs little memory.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public class ChunkedUploadRegistry {
+	
+	/**
+	 * the expired uploads are evicted no more often than it (in milliseconds)
+	 */
+	private static final long EVICTION_INTERVAL = 60 * 1000L;
+	
+	/**
+	 * the minimum chunk size, except for a file smaller than it
+	 */
+	private static final int MIN_CHUNK_SIZE = 64 * 1024;
+	
+	/**
+	 * the maximum number of chunks of an upload
+	 */
+	private static final int MAX_CHUNK_COUNT = 16 * 1024;
+	
+	/**
+	 * the default maximum file size (1 GB)
+	 */
+	private static final long DEFAULT_MAX_SIZE = 1024 * 1024 * 1024L;
+
+	/**
+	 * the chunked uploads: {uploadId : ChunkedUpload}
+	 */
+	private static final Map<String, ChunkedUpload> uploads = new ConcurrentHashMap<String, ChunkedUpload>();
+	
+	/**
+	 * the directory of the temp files. null means the system temp directory
+	 */
+	private static volatile Path directory = null;
+	
+	/**
+	 * the maximum file size. -1 means no limit
+	 */
+	private static volatile long maxSize = DEFAULT_MAX_SIZE;
+	
+	/**
+	 * the maximum number of the uploads not completed per owner. -1 means no limit
+	 */
+	private static volatile int maxUploadsPerOwner = 8;
+	
+	/**
+	 * an upload not updated within it (in milliseconds) is discarded
+	 */
+	private static volatile long ttl = 24 * 60 * 60 * 1000L;
+	
+	/**
+	 * the last time the expired uploads are evicted
+	 */
+	private static final AtomicLong lastEvictionTime = new AtomicLong(System.currentTimeMillis());
+	
+	/**
+	 * sets the directory of the temp files
+	 * @param directory
+	 */
+	public static void setDirectory(String directory) {
+		ChunkedUploadRegistry.directory = (directory != null) ? Paths.get(directory) : null;
+	}
+	
+	/**
+	 * sets the maximum file size (-1 for no limit)
+	 * @param maxSize
+	 */
+	public static void setMaxSize(long maxSize) {
+		ChunkedUploadRegistry.maxSize = maxSize;
+	}
+	
+	/**
+	 * sets the maximum number of the uploads not completed per owner (-1 for no limit)
+	 * @param maxUploadsPerOwner
+	 */
+	public static void setMaxUploadsPerOwner(int maxUploadsPerOwner) {
+		ChunkedUploadRegistry.maxUploadsPerOwner = maxUploadsPerOwner;
+	}
+	
+	/**
+	 * sets the ttl in milliseconds
+	 * @param ttl
+	 */
+	public static void setTtl(long ttl) {
+		ChunkedUploadRegistry.ttl = ttl;
+	}
+	
+	/**
+	 * starts a chunked upload without owner
+	 * @param fileName the original file name
+	 * @param size the file size
+	 * @param chunkSize the chunk size
+	 * @return ChunkedUpload
+	 * @throws IOException if the temp file cannot be created
+	 * @throws IllegalArgumentException if the sizes are invalid
+	 */
+	public static ChunkedUpload start(String fileName, long size, int chunkSize) throws IOException {
+		return(start(null, fileName, size, chunkSize));
+	}
+	
+	/**
+	 * starts a chunked upload for the given owner
+	 * @param owner the owner (user). null means no limit of uploads
+	 * @param fileName the original file name
+	 * @param size the file size
+	 * @param chunkSize the chunk size
+	 * @return ChunkedUpload
+	 * @throws IOException if the temp file cannot be created
+	 * @throws IllegalArgumentException if the sizes are invalid
+	 * @throws IllegalStateException if the owner holds the maximum number of uploads already
+	 */
+	public static ChunkedUpload start(String owner, String fileName, long size, int chunkSize) throws IOException {
+		if (size <= 0 || chunkSize < Math.min(MIN_CHUNK_SIZE, size) || (size + chunkSize - 1) / chunkSize > MAX_CHUNK_COUNT) {
+			throw new IllegalArgumentException("Invalid size " + size + " or chunk size " + chunkSize);
+		}
+		if (maxSize >= 0 && size > maxSize) {
+			throw new IllegalArgumentException("Size " + size + " exceeds the maximum " + maxSize);
+		}
+		evictExpired();
+		if (owner != null && maxUploadsPerOwner >= 0 && countUploads(owner) >= maxUploadsPerOwner) {
+			throw new IllegalStateException("Owner " + owner + " has " + maxUploadsPerOwner + " uploads not completed.");
+		}
+		Path dir = (directory != null) ? Files.createDirectories(directory) : Paths.get(System.getProperty("java.io.tmpdir"));
+		Path file = Files.createTempFile(dir, "chunked-", ".part");
+		String uploadId = UUID.randomUUID().toString();
+		try {
+			ChunkedUpload upload = new ChunkedUpload(uploadId, owner, fileName, size, chunkSize, file);
+			uploads.put(uploadId, upload);
+			return(upload);
+		} catch (RuntimeException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+	}
+	
+	/**
+	 * returns the chunked upload with the given upload id
+	 * @param uploadId
+	 * @return ChunkedUpload. null if not found
+	 */
+	public static ChunkedUpload find(String uploadId) {
+		evictExpired();
+		return(uploadId != null ? uploads.get(uploadId) : null);
+	}
+	
+	/**
+	 * takes the assembled file of the completed upload with the given upload id. 
+	 * the upload is removed, and the file belongs to the caller.
+	 * @param uploadId
+	 * @return Path. null if no such upload or it is not completed
+	 */
+	public static Path take(String uploadId) {
+		ChunkedUpload upload = find(uploadId);
+		if (upload == null || !upload.isCompleted() || !uploads.remove(uploadId, upload)) return(null);
+		return(upload.getFile());
+	}
+	
+	/**
+	 * discards the upload with the given upload id and deletes its temp file
+	 * @param uploadId
+	 */
+	public static void discard(String uploadId) {
+		ChunkedUpload upload = uploads.remove(uploadId);
+		if (upload != null) upload.discard();
+	}
+	
+	/**
+	 * returns the number of the uploads not completed of the given owner
+	 * @param owner
+	 * @return int
+	 */
+	private static int countUploads(String owner) {
+		int count = 0;
+		for (ChunkedUpload upload : uploads.values()) {
+			if (owner.equals(upload.getOwner()) && !upload.isCompleted()) count++;
+		}
+		return(count);
+	}
+	
+	/**
+	 * discards the uploads not updated within the ttl, at most once per eviction interval
+	 */
+	private static void evictExpired() {
+		long now = System.currentTimeMillis();
+		long last = lastEvictionTime.get();
+		if (now - last < EVICTION_INTERVAL || !lastEvictionTime.compareAndSet(last, now)) return;
+		Iterator<ChunkedUpload> it = uploads.values().iterator();
+		while (it.hasNext()) {
+			ChunkedUpload upload = it.next();
+			if (now - upload.getUpdatedTime() > ttl) {
+				it.remove();
+				upload.discard();
+			}
+		}
+	}
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+
+package com.pyrube.wea.session;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * the progress of an upload. it is updated by the upload thread and read by the 
+ * progress requests without locking. observers are notified on the upload thread 
+ * whenever the percent is changed and when the upload is completed.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public class UploadProgress {
+	
+	/**
+	 * the upload id
+	 */
+	private final String uploadId;
+	
+	/**
+	 * the percent read. -1 if the content length is unknown
+	 */
+	private volatile int percent = -1;
+	
+	/**
+	 * the bytes read when the percent is changed
+	 */
+	private volatile long bytesRead = 0;
+	
+	/**
+	 * the content length. -1 if unknown
+	 */
+	private volatile long contentLength = -1;
+	
+	/**
+	 * whether the upload is completed
+	 */
+	private volatile boolean completed = false;
+	
+	/**
+	 * the last time it is updated
+	 */
+	private volatile long updatedTime = System.currentTimeMillis();
+	
+	/**
+	 * the observers of the changes
+	 */
+	private final List<Consumer<UploadProgress>> observers = new CopyOnWriteArrayList<Consumer<UploadProgress>>();
+
+	/**
+	 * constructor
+	 * @param uploadId
+	 */
+	UploadProgress(String uploadId) {
+		this.uploadId = uploadId;
+	}
+	
+	/**
+	 * updates the progress. only a changed integer percent is recorded.
+	 * @param bytesRead
+	 * @param contentLength
+	 * @return boolean true if the percent is changed
+	 */
+	boolean update(long bytesRead, long contentLength) {
+		if (contentLength <= 0) return false;
+		int percent = (int) (bytesRead * 100 / contentLength);
+		if (percent == this.percent) return false;
+		this.bytesRead = bytesRead;
+		this.contentLength = contentLength;
+		this.percent = percent;
+		this.updatedTime = System.currentTimeMillis();
+		notifyObservers();
+		return true;
+	}
+	
+	/**
+	 * resets the progress for a new upload with the same upload id. 
+	 * the observers are kept.
+	 * @return UploadProgress this
+	 */
+	UploadProgress reset() {
+		this.percent = -1;
+		this.bytesRead = 0;
+		this.contentLength = -1;
+		this.completed = false;
+		this.updatedTime = System.currentTimeMillis();
+		return this;
+	}
+	
+	/**
+	 * marks the upload completed
+	 */
+	void complete() {
+		this.completed = true;
+		this.updatedTime = System.currentTimeMillis();
+		notifyObservers();
+	}
+	
+	/**
+	 * adds an observer of the changes
+	 * @param observer
+	 */
+	public void addObserver(Consumer<UploadProgress> observer) {
+		observers.add(observer);
+	}
+	
+	/**
+	 * removes an observer
+	 * @param observer
+	 */
+	public void removeObserver(Consumer<UploadProgress> observer) {
+		observers.remove(observer);
+	}
+	
+	/**
+	 * whether it has any observer
+	 * @return boolean
+	 */
+	boolean isObserved() {
+		return !observers.isEmpty();
+	}
+	
+	/**
+	 * notifies the observers
+	 */
+	private void notifyObservers() {
+		for (Consumer<UploadProgress> observer : observers) {
+			observer.accept(this);
+		}
+	}
+
+	/**
+	 * @return the uploadId
+	 */
+	public String getUploadId() {
+		return uploadId;
+	}
+
+	/**
+	 * @return the percent
+	 */
+	public int getPercent() {
+		return percent;
+	}
+
+	/**
+	 * @return the bytesRead
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	/**
+	 * @return the contentLength
+	 */
+	public long getContentLength() {
+		return contentLength;
+	}
+
+	/**
+	 * @return the completed
+	 */
+	public boolean isCompleted() {
+		return completed;
+	}
+
+	/**
+	 * @return the updatedTime
+	 */
+	public long getUpdatedTime() {
+		return updatedTime;
+	}
+}
@@ -17,16 +17,15 @@
 package com.pyrube.wea.session;
 
 import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpSession;
 
 import org.apache.commons.fileupload.ProgressListener;
 
 import com.pyrube.one.app.Apps;
 import com.pyrube.one.app.logging.Logger;
-import com.pyrube.wea.WeaConstants;
 
 /**
- * This listener is used to keep upload status information in session.
+ * This listener is used to keep upload status information in the <code>UploadProgressRegistry</code>. 
+ * the progress is recorded only when its integer percent is changed.
  * 
  * @author Aranjuez
  * @version Sep 20, 2023
@@ -38,31 +37,39 @@ public class UploadProgressListener implements ProgressListener {
 	 */
 	private static Logger logger = Apps.a.logger.named(UploadProgressListener.class.getName());
 	/**
-	 * request
+	 * the upload progress
 	 */
-	private HttpServletRequest request = null;
+	private final UploadProgress progress;
 
 	/**
 	 * constructor
 	 * @param request
 	 */
 	public UploadProgressListener(HttpServletRequest request) {
-		this.request = request;
-		HttpSession session = request.getSession();
-		session.removeAttribute(WeaConstants.SESSION_ATTRNAME_UPLOAD_PROGRESS);
+		String uploadId = UploadProgressRegistry.resolveUploadId(request, true);
+		this.progress = UploadProgressRegistry.start(uploadId);
 	}
 
 	@Override
 	public void update(long bytesRead, long contentLength, int itemsCount) {
-		double readByte = bytesRead;
-		double totalSize = contentLength;
 		if (contentLength == -1) {
 			if (logger.isDebugEnabled()) logger.debug("Item index[" + itemsCount + "] " + bytesRead + " bytes have been read.");
-		} else {
+		} else if (progress.update(bytesRead, contentLength)) {
 			if (logger.isDebugEnabled()) logger.debug("Item index[" + itemsCount + "] " + bytesRead + " of " + contentLength + " bytes have been read.");
-			String percent = String.valueOf(Math.round((readByte / totalSize) * 100));
-			HttpSession session = request.getSession();
-			session.setAttribute(WeaConstants.SESSION_ATTRNAME_UPLOAD_PROGRESS, percent);
 		}
 	}
+
+	/**
+	 * marks the upload completed
+	 */
+	public void complete() {
+		UploadProgressRegistry.complete(progress);
+	}
+
+	/**
+	 * @return the progress
+	 */
+	public UploadProgress getProgress() {
+		return progress;
+	}
 }
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+
+package com.pyrube.wea.session;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import com.pyrube.one.lang.Strings;
+
+/**
+ * an in-memory registry of the upload progresses keyed by upload id. an upload id 
+ * is issued by the server (<code>issue()</code>) and sent back by the client in the 
+ * header <code>X-Upload-Id</code> or the parameter <code>uploadId</code>, otherwise 
+ * the session id is used. an upload id not issued is ignored, so a client can neither 
+ * choose an upload id nor watch the upload of others. 
+ * a progress is evicted once it has been completed for a while, or it has not been 
+ * updated within the ttl and nobody observes it.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public class UploadProgressRegistry {
+	
+	/**
+	 * the header name and the parameter name of the upload id
+	 */
+	public static final String HEADER_NAME_UPLOAD_ID = "X-Upload-Id";
+	public static final String PARAM_NAME_UPLOAD_ID  = "uploadId";
+	
+	/**
+	 * a completed progress is kept for it (in milliseconds), so the client can read the last percent
+	 */
+	private static final long COMPLETED_RETENTION = 60 * 1000L;
+	
+	/**
+	 * the expired progresses are evicted no more often than it (in milliseconds)
+	 */
+	private static final long EVICTION_INTERVAL = 30 * 1000L;
+	
+	/**
+	 * no more upload ids are issued once so many progresses are kept
+	 */
+	private static final int MAX_PROGRESSES = 10000;
+
+	/**
+	 * the upload progresses: {uploadId : UploadProgress}
+	 */
+	private static final Map<String, UploadProgress> progresses = new ConcurrentHashMap<String, UploadProgress>();
+	
+	/**
+	 * a progress not updated within it (in milliseconds) is evicted
+	 */
+	private static volatile long ttl = 10 * 60 * 1000L;
+	
+	/**
+	 * the last time the expired progresses are evicted
+	 */
+	private static final AtomicLong lastEvictionTime = new AtomicLong(System.currentTimeMillis());
+	
+	/**
+	 * sets the ttl in milliseconds
+	 * @param ttl
+	 */
+	public static void setTtl(long ttl) {
+		UploadProgressRegistry.ttl = ttl;
+	}
+	
+	/**
+	 * issues a new upload id, and keeps a progress not started for it, so it can be 
+	 * watched before the upload starts. it is evicted if it is not used within the ttl.
+	 * @return String. null if too many progresses are kept
+	 */
+	public static String issue() {
+		evictExpired();
+		if (progresses.size() >= MAX_PROGRESSES) return(null);
+		String uploadId = UUID.randomUUID().toString();
+		progresses.put(uploadId, new UploadProgress(uploadId));
+		return(uploadId);
+	}
+	
+	/**
+	 * returns the upload id of the given request. it is the header or the parameter 
+	 * if it has been issued, otherwise the session id (a session is created if necessary).
+	 * @param request
+	 * @param create whether to create a session for the upload id
+	 * @return String. null if no upload id
+	 */
+	public static String resolveUploadId(HttpServletRequest request, boolean create) {
+		String uploadId = request.getHeader(HEADER_NAME_UPLOAD_ID);
+		if (Strings.isEmpty(uploadId)) uploadId = request.getParameter(PARAM_NAME_UPLOAD_ID);
+		if (!Strings.isEmpty(uploadId) && !progresses.containsKey(uploadId)) uploadId = null;
+		if (Strings.isEmpty(uploadId)) {
+			HttpSession session = request.getSession(create);
+			uploadId = (session != null) ? session.getId() : null;
+		}
+		return(uploadId);
+	}
+	
+	/**
+	 * starts a new progress with the given upload id. the previous one with the same 
+	 * upload id is replaced, unless it is observed (then it is reset).
+	 * @param uploadId
+	 * @return UploadProgress
+	 */
+	public static UploadProgress start(String uploadId) {
+		evictExpired();
+		return(progresses.compute(uploadId, 
+			(id, progress) -> (progress != null && progress.isObserved()) ? progress.reset() : new UploadProgress(id)));
+	}
+	
+	/**
+	 * returns the progress with the given upload id to be observed. an issued upload 
+	 * id can be watched before the upload starts, but no progress is created here.
+	 * @param uploadId
+	 * @return UploadProgress. null if the upload id is unknown
+	 */
+	public static UploadProgress watch(String uploadId) {
+		evictExpired();
+		return(find(uploadId));
+	}
+	
+	/**
+	 * returns the progress with the given upload id
+	 * @param uploadId
+	 * @return UploadProgress. null if not found
+	 */
+	public static UploadProgress find(String uploadId) {
+		return(uploadId != null ? progresses.get(uploadId) : null);
+	}
+	
+	/**
+	 * marks the given progress completed. it is evicted after a while.
+	 * @param progress
+	 */
+	public static void complete(UploadProgress progress) {
+		progress.complete();
+	}
+	
+	/**
+	 * removes the progress with the given upload id
+	 * @param uploadId
+	 */
+	public static void remove(String uploadId) {
+		progresses.remove(uploadId);
+	}
+	
+	/**
+	 * evicts the completed and the stale progresses, at most once per eviction interval
+	 */
+	private static void evictExpired() {
+		long now = System.currentTimeMillis();
+		long last = lastEvictionTime.get();
+		if (now - last < EVICTION_INTERVAL || !lastEvictionTime.compareAndSet(last, now)) return;
+		Iterator<UploadProgress> it = progresses.values().iterator();
+		while (it.hasNext()) {
+			UploadProgress progress = it.next();
+			long idle = now - progress.getUpdatedTime();
+			if (progress.isCompleted() ? idle > COMPLETED_RETENTION : (idle > ttl && !progress.isObserved())) it.remove();
+		}
+	}
+}
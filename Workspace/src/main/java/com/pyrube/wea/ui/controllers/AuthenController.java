@@ -16,14 +16,8 @@
 
 package com.pyrube.wea.ui.controllers;
 
-import java.awt.Color;
-import java.awt.Font;
-import java.awt.Graphics;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.Random;
 
-import javax.imageio.ImageIO;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -47,6 +41,10 @@ import com.pyrube.wea.WeaConfig;
 import com.pyrube.wea.WeaConfig.Captcha;
 import com.pyrube.wea.WeaConstants;
 import com.pyrube.wea.security.core.BadCaptchaException;
+import com.pyrube.wea.security.core.CaptchaPool;
+import com.pyrube.wea.security.core.CaptchaPool.CaptchaImage;
+import com.pyrube.wea.security.core.CaptchaTokens;
+import com.pyrube.wea.util.Weas;
 import com.pyrube.wea.security.core.CredentialsInitializedException;
 
 /**
@@ -130,44 +128,17 @@ public class AuthenController extends WeaController {
 	@RequestMapping("/captcha")  
 	public void generateCaptcha(HttpServletRequest request, HttpServletResponse response) throws IOException {
 		Captcha captcha = WeaConfig.getWeaConfig().getCaptcha();
-		BufferedImage bufImage = new BufferedImage(captcha.getImageWidth(), captcha.getImageHeight(), BufferedImage.TYPE_INT_RGB);
-		Graphics gd = bufImage.getGraphics();
-		Random random = new Random();
-		gd.setColor(Color.WHITE);
-		gd.fillRect(0, 0, captcha.getImageWidth(), captcha.getImageHeight());
-
-		Font font = new Font("Fixedsys", Font.BOLD, captcha.getFontSize());
-		gd.setFont(font);
-
-		gd.setColor(Color.GRAY);
-		gd.drawRect(0, 0, captcha.getImageWidth() - 1, captcha.getImageHeight() - 1);
-
-		gd.setColor(Color.BLACK);
-		for (int i = 0; i < 50; i++) {
-			int x = random.nextInt(captcha.getImageWidth());
-			int y = random.nextInt(captcha.getImageHeight());
-			int xl = random.nextInt(12);
-			int yl = random.nextInt(12);
-			gd.drawLine(x, y, x + xl, y + yl);
-		}
-
-		StringBuffer buf = new StringBuffer();
-		int red = 0, green = 0, blue = 0;
-
-		for (int i = 0; i < captcha.getCodeLength(); i++) {
-			String $char = String.valueOf(captcha.getAvailableChars()[random.nextInt(captcha.getAvailableChars().length)]);
-			red = random.nextInt(255);
-			green = random.nextInt(255);
-			blue = random.nextInt(255);
-			
-			gd.setColor(new Color(red, green, blue));
-			gd.drawString($char, (i + 1) * captcha.getCharWidth(), captcha.getCharPosY());
-
-			buf.append($char);
+		CaptchaImage image = CaptchaPool.getInstance().take();
+		if (captcha.isStateless()) {
+			// sign captcha code into a token, no session is created
+			String token = CaptchaTokens.getInstance().issue(image.getCode());
+			Weas.setCaptchaTokenCookie(request, response, token);
+			response.setHeader(WeaConstants.HEADER_NAME_CAPTCHA_TOKEN, token);
+		} else {
+			// hold captcha code in session
+			HttpSession session = request.getSession();
+			session.setAttribute(WeaConstants.SESSION_ATTRNAME_CAPTCHA, image.getCode());
 		}
-		// hold captcha code in session
-		HttpSession session = request.getSession();
-		session.setAttribute(WeaConstants.SESSION_ATTRNAME_CAPTCHA, buf.toString());
 
 		// no cache for captcha image
 		// Set standard HTTP/1.1 no-cache headers.
@@ -180,10 +151,11 @@ public class AuthenController extends WeaController {
 		response.setHeader("Expires", "0");
 
 		response.setContentType(captcha.getMimeType());
+		response.setContentLength(image.getBytes().length);
 
 		// write out
 		ServletOutputStream sos = response.getOutputStream();
-		ImageIO.write(bufImage, "png", sos);
+		sos.write(image.getBytes());
 		sos.close();
 	} 
 	
@@ -16,7 +16,12 @@
 
 package com.pyrube.wea.ui.controllers;
 
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -26,20 +31,37 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pyrube.one.app.Apps;
 import com.pyrube.one.app.i18n.I18nConfig;
 import com.pyrube.one.app.i18n.I18nManager;
@@ -47,10 +69,15 @@ import com.pyrube.one.app.inquiry.SearchCriteria;
 import com.pyrube.one.app.logging.Logger;
 import com.pyrube.one.app.memo.Note;
 import com.pyrube.one.app.security.SecurityManagerFactory;
+import com.pyrube.one.lang.Strings;
 import com.pyrube.one.util.Currency;
 import com.pyrube.one.util.Option;
-import com.pyrube.wea.WeaConstants;
 import com.pyrube.wea.context.WebContextHolder;
+import com.pyrube.wea.format.converters.LocalizedObjectMapper;
+import com.pyrube.wea.session.ChunkedUpload;
+import com.pyrube.wea.session.ChunkedUploadRegistry;
+import com.pyrube.wea.session.UploadProgress;
+import com.pyrube.wea.session.UploadProgressRegistry;
 
 /**
  * JSEA initialization
@@ -68,19 +95,263 @@ public class JseaController {
 	 */
 	private static Logger logger = Logger.getInstance(JseaController.class.getName());
 
-	@ResponseBody
+	/**
+	 * the serialized initialization payloads: {locale : InitPayload}
+	 */
+	private static final Map<String, InitPayload> initPayloads = new ConcurrentHashMap<String, InitPayload>();
+	
+	/**
+	 * the serialized i18n message subsets: {locale|namespaces : InitPayload}
+	 */
+	private static final Map<String, InitPayload> messagePayloads = new ConcurrentHashMap<String, InitPayload>();
+	
+	/**
+	 * the maximum number of the cached i18n message subsets. all of them are discarded 
+	 * once it is reached (namespaces come from request urls)
+	 */
+	private static final int MAX_MESSAGE_PAYLOADS = 1024;
+	
+	/**
+	 * a payload is revalidated (serialized again) once it is older than it (in milliseconds), 
+	 * so a source reloaded in place is served within it
+	 */
+	private static final long PAYLOAD_REVALIDATE_INTERVAL = 60 * 1000L;
+	
+	/**
+	 * the separator of the namespaces in the request url
+	 */
+	private static final String NAMESPACE_SEPARATOR = ",";
+	
+	/**
+	 * the timeout (in milliseconds) of an upload progress stream
+	 */
+	private static final long PROGRESS_STREAM_TIMEOUT = 30 * 60 * 1000L;
+	
+	/**
+	 * the number of the threads to push the upload progress events
+	 */
+	private static final int PROGRESS_PUSHER_THREADS = 4;
+	
+	/**
+	 * the pushers of the upload progress events, so a slow client never slows down the upload. 
+	 * they are started on demand, and stopped by <code>WeaConfigLoader</code> when the application shuts down.
+	 */
+	private static ExecutorService progressPushers = null;
+	
+	/**
+	 * the object mapper to serialize the initialization payloads
+	 */
+	private static final ObjectMapper payloadMapper = new LocalizedObjectMapper();
+
+	/**
+	 * returns the JSEA initialization parameters in JSON. they are serialized once per locale 
+	 * (identity and gzip), and served with a strong ETag, so browsers revalidate them and get 
+	 * a 304 if nothing changed. the payload is rebuilt once the resource bundle, application 
+	 * properties, currencies or i18n configuration is reloaded.
+	 * if <code>messages</code> is false, the i18n messages are left out, and the page loads 
+	 * the namespaces it needs through <code>messages/{namespaces}</code>.
+	 * @param messages whether to include all the i18n messages
+	 * @param request
+	 * @return
+	 * @throws IOException
+	 */
 	@RequestMapping("init")
+	public ResponseEntity<byte[]> init(@RequestParam(value = "messages", defaultValue = "true") boolean messages, 
+			HttpServletRequest request) throws IOException {
+		Locale locale = WebContextHolder.getWebContext().getLocale();
+		return respond(resolveInitPayload(locale, messages), request);
+	}
+	
+	/**
+	 * returns the i18n messages of the given namespaces in JSON. a namespace is the leading 
+	 * part of the message keys (i.e. <code>funcname</code> for <code>funcname.*</code>), and 
+	 * more namespaces are separated by comma (i.e. <code>global,sample</code>). 
+	 * each subset is serialized once per locale and served like the initialization payload, 
+	 * so it can be cached separately by browsers.
+	 * @param namespaces
+	 * @param request
+	 * @return
+	 * @throws IOException
+	 */
+	@RequestMapping("messages/{namespaces:.+}")
+	public ResponseEntity<byte[]> messages(@PathVariable("namespaces") String namespaces, 
+			HttpServletRequest request) throws IOException {
+		Locale locale = WebContextHolder.getWebContext().getLocale();
+		return respond(resolveMessagePayload(locale, namespaces), request);
+	}
+	
+	/**
+	 * returns the response for the given payload, gzipped if the client accepts it
+	 * @param payload
+	 * @param request
+	 * @return
+	 */
+	private ResponseEntity<byte[]> respond(InitPayload payload, HttpServletRequest request) {
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+			.contentType(MediaType.APPLICATION_JSON_UTF8)
+			.cacheControl(CacheControl.noCache().cachePrivate())
+			.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+			return builder.eTag(payload.gzipETag)
+				.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+				.body(payload.gzipBytes);
+		}
+		return builder.eTag(payload.eTag).body(payload.bytes);
+	}
+	
+	/**
+	 * returns the pushers of the upload progress events. they are started if not yet.
+	 * @return ExecutorService
+	 */
+	private static synchronized ExecutorService progressPushers() {
+		if (progressPushers == null) {
+			progressPushers = Executors.newFixedThreadPool(PROGRESS_PUSHER_THREADS, r -> {
+				Thread t = new Thread(r, "wea-progress-pusher");
+				t.setDaemon(true);
+				return(t);
+			});
+		}
+		return(progressPushers);
+	}
+	
+	/**
+	 * stops the pushers of the upload progress events, so no thread outlives the application. 
+	 * they are started again on demand.
+	 */
+	public static synchronized void shutdownProgressPushers() {
+		if (progressPushers != null) {
+			progressPushers.shutdownNow();
+			progressPushers = null;
+		}
+	}
+	
+	/**
+	 * discards all the serialized initialization payloads. the payloads are rebuilt once 
+	 * any of their sources is replaced, and revalidated once per revalidate interval in 
+	 * case a source is reloaded in place (i.e. the same properties map refilled), so this 
+	 * is only needed to serve a reloaded source at once. it is called by 
+	 * <code>WeaConfigLoader</code> when the application starts up or shuts down.
+	 */
+	public static void clearInitPayloads() {
+		initPayloads.clear();
+		messagePayloads.clear();
+	}
+	
+	/**
+	 * returns the serialized initialization payload for the given locale. 
+	 * it is rebuilt if any of its sources is changed, and revalidated if it is stale.
+	 * @param locale
+	 * @param messages whether to include all the i18n messages
+	 * @return InitPayload
+	 * @throws IOException
+	 */
+	private InitPayload resolveInitPayload(Locale locale, boolean messages) throws IOException {
+		Object[] sources = initSources(locale);
+		String key = messages ? locale.toString() : locale.toString() + "|-";
+		InitPayload payload = initPayloads.get(key);
+		if (payload == null || !payload.isFrom(sources) || payload.isStale()) {
+			byte[] bytes = payloadMapper.writeValueAsBytes(initParams(locale, messages));
+			payload = InitPayload.of(payload, sources, bytes);
+			initPayloads.put(key, payload);
+		}
+		return payload;
+	}
+	
+	/**
+	 * returns the serialized i18n messages of the given namespaces for the given locale. 
+	 * the namespaces are sorted and deduplicated, so <code>b,a</code> and <code>a,b,a</code> 
+	 * share one payload. it is rebuilt if the resource bundle is reloaded, and revalidated 
+	 * if it is stale.
+	 * @param locale
+	 * @param namespaces
+	 * @return InitPayload
+	 * @throws IOException
+	 */
+	private InitPayload resolveMessagePayload(Locale locale, String namespaces) throws IOException {
+		Set<String> nsSet = new TreeSet<String>();
+		for (String ns : namespaces.split(NAMESPACE_SEPARATOR)) {
+			ns = ns.trim();
+			if (!Strings.isEmpty(ns)) nsSet.add(ns);
+		}
+		ResourceBundle rb = I18nManager.getResourceBundle(locale);
+		Object[] sources = new Object[] { rb };
+		String key = locale.toString() + "|" + String.join(NAMESPACE_SEPARATOR, nsSet);
+		InitPayload payload = messagePayloads.get(key);
+		if (payload == null || !payload.isFrom(sources) || payload.isStale()) {
+			byte[] bytes = payloadMapper.writeValueAsBytes(i18nMessages(rb, nsSet));
+			payload = InitPayload.of(payload, sources, bytes);
+			if (messagePayloads.size() >= MAX_MESSAGE_PAYLOADS) messagePayloads.clear();
+			messagePayloads.put(key, payload);
+		}
+		return payload;
+	}
+	
+	/**
+	 * returns the i18n messages of the given namespaces in the given resource bundle. 
+	 * a message belongs to a namespace if its key is the namespace or starts with the 
+	 * namespace followed by a dot.
+	 * @param rb
+	 * @param namespaces
+	 * @return Map
+	 */
+	private Map<String, String> i18nMessages(ResourceBundle rb, Set<String> namespaces) {
+		Map<String, String> i18nMessages = new TreeMap<String, String>();
+		if (rb == null || namespaces.isEmpty()) return i18nMessages;
+		Enumeration<String> keys = rb.getKeys();
+		while (keys.hasMoreElements()) {
+			String key = keys.nextElement();
+			for (String ns : namespaces) {
+				if (key.startsWith(ns) && (key.length() == ns.length() || key.charAt(ns.length()) == '.')) {
+					i18nMessages.put(key, rb.getString(key));
+					break;
+				}
+			}
+		}
+		return i18nMessages;
+	}
+	
+	/**
+	 * returns the sources of the initialization parameters. if any of them is reloaded 
+	 * (replaced), the parameters should be rebuilt.
+	 * @param locale
+	 * @return Object[]
+	 */
+	private Object[] initSources(Locale locale) {
+		return new Object[] {
+			I18nManager.getResourceBundle(locale), 
+			Apps.config.properties(), 
+			Apps.some.objects.cached("mapCurrencies"), 
+			Apps.some.objects.cached("listCurrencies"), 
+			I18nConfig.getI18nConfig()
+		};
+	}
+
+	/**
+	 * returns the JSEA initialization parameters for the given locale
+	 * @param locale
+	 * @return Map
+	 */
+	public Map<String, Object> initParams(Locale locale) {
+		return initParams(locale, true);
+	}
+
+	/**
+	 * returns the JSEA initialization parameters for the given locale
+	 * @param locale
+	 * @param messages whether to include all the i18n messages
+	 * @return Map
+	 */
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-	public Map<String, Object> init() {
+	public Map<String, Object> initParams(Locale locale, boolean messages) {
 		if (logger.isDebugEnabled()) {
 			logger.debug("Initializing JSEA parameters...");
 		}
 		Map<String, Object> initParams = new ConcurrentHashMap<String, Object>();
 		
 		I18nConfig i18nCfg = I18nConfig.getI18nConfig();
-		Locale locale = WebContextHolder.getWebContext().getLocale();
 		// Resolve i18n messages
-		ResourceBundle rb = I18nManager.getResourceBundle(locale);
+		ResourceBundle rb = messages ? I18nManager.getResourceBundle(locale) : null;
 		if (rb != null) {
 			Map<String, String> i18nMessages = new ConcurrentHashMap<String, String>();
 			Enumeration<String> keys = rb.getKeys();
@@ -157,10 +428,310 @@ public class JseaController {
 		return "memo.comments_box";
 	}
 
+	/**
+	 * issues an upload id. the client sends it back in the header <code>X-Upload-Id</code> 
+	 * or the parameter <code>uploadId</code> with the upload and when observing its progress.
+	 * @return the upload id. 503 if too many uploads are kept
+	 */
+	@ResponseBody
+	@RequestMapping(value = "upload/progress/id", method = RequestMethod.POST)
+	public ResponseEntity<String> issueUploadId() {
+		String uploadId = UploadProgressRegistry.issue();
+		if (uploadId == null) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+		return ResponseEntity.ok(uploadId);
+	}
+
+	/**
+	 * returns the percent of the upload with the upload id given by the request 
+	 * (header/parameter, or the session id). it does not create a session.
+	 * @param request
+	 * @param response
+	 * @return String. null if no such upload or its content length is unknown
+	 */
 	@ResponseBody
 	@RequestMapping(value = "upload/progress")
 	public String getProgress(HttpServletRequest request, HttpServletResponse response) {
-		HttpSession session = request.getSession();
-		return (String) session.getAttribute(WeaConstants.SESSION_ATTRNAME_UPLOAD_PROGRESS);
+		UploadProgress progress = UploadProgressRegistry.find(UploadProgressRegistry.resolveUploadId(request, false));
+		if (progress == null || progress.getPercent() < 0) return null;
+		return String.valueOf(progress.getPercent());
+	}
+
+	/**
+	 * streams the progress of the upload with the upload id given by the request 
+	 * (header/parameter, or the session id) as server-sent events. an event named 
+	 * <code>progress</code> with the percent is pushed whenever the percent is changed, 
+	 * and the stream is completed with an event named <code>complete</code>. 
+	 * the stream can be opened before the upload starts if the upload id has been issued.
+	 * @param request
+	 * @return SseEmitter. 404 if the upload id is unknown
+	 * @throws IOException
+	 */
+	@RequestMapping(value = "upload/progress/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamProgress(HttpServletRequest request) throws IOException {
+		UploadProgress progress = UploadProgressRegistry.watch(UploadProgressRegistry.resolveUploadId(request, false));
+		if (progress == null) return ResponseEntity.notFound().build();
+		ProgressEmitter emitter = new ProgressEmitter();
+		emitter.observe(progress);
+		return ResponseEntity.ok(emitter);
+	}
+
+	/**
+	 * initializes a resumable chunked upload. the client puts the chunks to 
+	 * <code>upload/chunked/{uploadId}?offset=..</code>, and completes it with 
+	 * <code>upload/chunked/{uploadId}/complete</code>. the upload id is also the id to 
+	 * observe its progress. it is for the authenticated users only, so no session is created 
+	 * for it, and the uploads not completed are limited per user.
+	 * @param fileName the original file name
+	 * @param size the file size
+	 * @param chunkSize the chunk size
+	 * @param request
+	 * @return the upload status. 401 if the user is not authenticated, 429 if too many uploads are not completed
+	 * @throws IOException
+	 */
+	@RequestMapping(value = "upload/chunked/init", method = RequestMethod.POST)
+	public ResponseEntity<Map<String, Object>> initChunkedUpload(@RequestParam("fileName") String fileName, 
+			@RequestParam("size") long size, @RequestParam("chunkSize") int chunkSize, HttpServletRequest request) throws IOException {
+		if (request.getUserPrincipal() == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		String owner = request.getUserPrincipal().getName();
+		try {
+			return ResponseEntity.ok(ChunkedUploadRegistry.start(owner, fileName, size, chunkSize).getStatus());
+		} catch (IllegalArgumentException e) {
+			logger.warn(e.getMessage());
+			return ResponseEntity.badRequest().build();
+		} catch (IllegalStateException e) {
+			logger.warn(e.getMessage());
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+		}
+	}
+
+	/**
+	 * returns the status of a chunked upload, so the client can resume it with the 
+	 * missing chunks
+	 * @param uploadId
+	 * @return the upload status
+	 */
+	@RequestMapping(value = "upload/chunked/{uploadId}", method = RequestMethod.GET)
+	public ResponseEntity<Map<String, Object>> getChunkedUpload(@PathVariable("uploadId") String uploadId) {
+		ChunkedUpload upload = ChunkedUploadRegistry.find(uploadId);
+		if (upload == null) return ResponseEntity.notFound().build();
+		return ResponseEntity.ok(upload.getStatus());
+	}
+
+	/**
+	 * accepts a chunk of a chunked upload. the request body is the chunk bytes, and the 
+	 * chunks can be put in parallel.
+	 * @param uploadId
+	 * @param offset the chunk offset, a multiple of the chunk size
+	 * @param request
+	 * @return 400 if the offset is invalid or the body is shorter than the chunk
+	 * @throws IOException
+	 */
+	@RequestMapping(value = "upload/chunked/{uploadId}", method = RequestMethod.PUT)
+	public ResponseEntity<Void> acceptChunk(@PathVariable("uploadId") String uploadId, 
+			@RequestParam("offset") long offset, HttpServletRequest request) throws IOException {
+		ChunkedUpload upload = ChunkedUploadRegistry.find(uploadId);
+		if (upload == null) return ResponseEntity.notFound().build();
+		try {
+			upload.write(offset, Channels.newChannel(request.getInputStream()));
+		} catch (IllegalArgumentException | EOFException e) {
+			logger.warn(e.getMessage());
+			return ResponseEntity.badRequest().build();
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).build();
+		}
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * completes a chunked upload. the application takes the assembled file by 
+	 * <code>ChunkedUploadRegistry.take(uploadId)</code>.
+	 * @param uploadId
+	 * @return the upload status. 409 if any chunk is missing
+	 * @throws IOException
+	 */
+	@RequestMapping(value = "upload/chunked/{uploadId}/complete", method = RequestMethod.POST)
+	public ResponseEntity<Map<String, Object>> completeChunkedUpload(@PathVariable("uploadId") String uploadId) throws IOException {
+		ChunkedUpload upload = ChunkedUploadRegistry.find(uploadId);
+		if (upload == null) return ResponseEntity.notFound().build();
+		try {
+			upload.complete();
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(upload.getStatus());
+		}
+		return ResponseEntity.ok(upload.getStatus());
+	}
+
+	/**
+	 * aborts a chunked upload and deletes its temp file
+	 * @param uploadId
+	 * @return
+	 */
+	@RequestMapping(value = "upload/chunked/{uploadId}", method = RequestMethod.DELETE)
+	public ResponseEntity<Void> abortChunkedUpload(@PathVariable("uploadId") String uploadId) {
+		ChunkedUploadRegistry.discard(uploadId);
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * server-sent event emitter of an upload progress
+	 */
+	private static class ProgressEmitter extends SseEmitter implements Consumer<UploadProgress> {
+		private UploadProgress progress;
+		/**
+		 * whether a push is scheduled. the changes before it runs are coalesced
+		 */
+		private final AtomicBoolean scheduled = new AtomicBoolean(false);
+		/**
+		 * the last percent pushed
+		 */
+		private int pushedPercent = -1;
+		
+		/**
+		 * constructor
+		 */
+		ProgressEmitter() {
+			super(PROGRESS_STREAM_TIMEOUT);
+			onCompletion(this::unobserve);
+			onTimeout(this::unobserve);
+			onError(e -> unobserve());
+		}
+		
+		/**
+		 * starts observing the given progress, and pushes its current state
+		 * @param progress
+		 */
+		void observe(UploadProgress progress) {
+			this.progress = progress;
+			progress.addObserver(this);
+			if (progress.getPercent() >= 0 || progress.isCompleted()) accept(progress);
+		}
+		
+		/**
+		 * stops observing the progress
+		 */
+		private void unobserve() {
+			if (progress != null) progress.removeObserver(this);
+		}
+
+		/**
+		 * schedules a push of the latest state of the progress. it is called on the 
+		 * upload thread, so nothing is sent here.
+		 */
+		@Override
+		public void accept(UploadProgress progress) {
+			if (!scheduled.compareAndSet(false, true)) return;
+			try {
+				progressPushers().execute(this::push);
+			} catch (RejectedExecutionException e) {
+				scheduled.set(false);
+				unobserve();
+				completeWithError(e);
+			}
+		}
+		
+		/**
+		 * pushes the latest state of the progress
+		 */
+		private synchronized void push() {
+			scheduled.set(false);
+			int percent = progress.getPercent();
+			boolean completed = progress.isCompleted();
+			try {
+				if (percent >= 0 && percent != pushedPercent) {
+					send(SseEmitter.event().name("progress").data(percent));
+					pushedPercent = percent;
+				}
+				if (completed) {
+					send(SseEmitter.event().name("complete").data(percent));
+					unobserve();
+					complete();
+				}
+			} catch (IOException | IllegalStateException e) {
+				// client is gone or the stream is completed already
+				unobserve();
+				completeWithError(e);
+			}
+		}
+	}
+
+	/**
+	 * serialized initialization payload (or i18n message subset) of a locale
+	 */
+	private static class InitPayload {
+		private final Object[] sources;
+		private final byte[] bytes;
+		private final byte[] gzipBytes;
+		private final String eTag;
+		private final String gzipETag;
+		/**
+		 * the time it is validated
+		 */
+		private final long validatedTime = System.currentTimeMillis();
+		
+		/**
+		 * returns the payload of the given bytes. the compressed bytes and etags of the 
+		 * previous payload are reused if the bytes are not changed.
+		 * @param previous the previous payload. it could be null
+		 * @param sources
+		 * @param bytes
+		 * @return InitPayload
+		 * @throws IOException
+		 */
+		static InitPayload of(InitPayload previous, Object[] sources, byte[] bytes) throws IOException {
+			if (previous != null && Arrays.equals(previous.bytes, bytes)) return new InitPayload(sources, previous);
+			return new InitPayload(sources, bytes);
+		}
+		
+		/**
+		 * constructor
+		 * @param sources
+		 * @param bytes
+		 * @throws IOException
+		 */
+		InitPayload(Object[] sources, byte[] bytes) throws IOException {
+			this.sources = sources;
+			this.bytes = bytes;
+			ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(bytes);
+			}
+			this.gzipBytes = out.toByteArray();
+			String digest = DigestUtils.md5DigestAsHex(bytes);
+			this.eTag = "\"" + digest + "\"";
+			this.gzipETag = "\"" + digest + "-gzip\"";
+		}
+		
+		/**
+		 * constructor of a revalidated payload with the same bytes
+		 * @param sources
+		 * @param validated the payload validated
+		 */
+		private InitPayload(Object[] sources, InitPayload validated) {
+			this.sources = sources;
+			this.bytes = validated.bytes;
+			this.gzipBytes = validated.gzipBytes;
+			this.eTag = validated.eTag;
+			this.gzipETag = validated.gzipETag;
+		}
+		
+		/**
+		 * whether it is older than the revalidate interval
+		 * @return boolean
+		 */
+		boolean isStale() {
+			return (System.currentTimeMillis() - validatedTime > PAYLOAD_REVALIDATE_INTERVAL);
+		}
+		
+		/**
+		 * whether this payload is built from the given sources
+		 * @param sources
+		 * @return boolean
+		 */
+		boolean isFrom(Object[] sources) {
+			for (int i = 0; i < sources.length; i++) {
+				if (this.sources[i] != sources[i]) return false;
+			}
+			return true;
+		}
 	}
 }
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+
+package com.pyrube.wea.ui.resolvers.core;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import com.pyrube.one.app.logging.Logger;
+
+/**
+ * an upload sink writing each file part into a new file of a directory through a 
+ * <code>FileChannel</code>. the location of the part is the <code>Path</code> of the file.
+ * <pre>
+ * <beans:bean id="uploadSink" class="com.pyrube.wea.ui.resolvers.core.FileChannelUploadSink">
+ *   <beans:property name="directory" value="/data/upload" />
+ * </beans:bean>
+ * </pre>
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public class FileChannelUploadSink implements UploadSink {
+	
+	/**
+	 * logger
+	 */
+	private static Logger logger = Logger.getInstance(FileChannelUploadSink.class.getName());
+	
+	/**
+	 * the directory of the files. null means the system temp directory
+	 */
+	private Path directory = null;
+
+	/**
+	 * @param directory the directory to set
+	 */
+	public void setDirectory(String directory) {
+		this.directory = Paths.get(directory);
+	}
+
+	@Override
+	public WritableByteChannel open(UploadedPart part) throws IOException {
+		Path dir = (directory != null) ? Files.createDirectories(directory) : Paths.get(System.getProperty("java.io.tmpdir"));
+		Path file = Files.createTempFile(dir, "upload-", ".part");
+		part.setLocation(file);
+		return FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	@Override
+	public void discard(UploadedPart part) {
+		if (part.getLocation() instanceof Path) {
+			try {
+				Files.deleteIfExists((Path) part.getLocation());
+			} catch (IOException e) {
+				logger.warn("Failed to delete " + part.getLocation(), e);
+			}
+		}
+	}
+}
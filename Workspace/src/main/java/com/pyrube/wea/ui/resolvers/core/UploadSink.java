@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+
+package com.pyrube.wea.ui.resolvers.core;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * a sink the uploaded files are streamed into by <code>WeaMultipartResolver</code> in 
+ * streaming mode. a <code>FileChannel</code> is written with <code>transferFrom</code>, 
+ * any other channel through a direct buffer.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public interface UploadSink {
+
+	/**
+	 * opens a channel to write the given file part. the sink may set the location of 
+	 * the part. the channel is closed by the caller.
+	 * @param part the file part (size and checksum are not known yet)
+	 * @return WritableByteChannel
+	 * @throws IOException
+	 */
+	WritableByteChannel open(UploadedPart part) throws IOException;
+
+	/**
+	 * discards the given file part which failed to be written
+	 * @param part
+	 */
+	default void discard(UploadedPart part) {
+	}
+}
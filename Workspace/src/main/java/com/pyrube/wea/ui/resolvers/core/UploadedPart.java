@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+
+package com.pyrube.wea.ui.resolvers.core;
+
+/**
+ * a file part streamed into an <code>UploadSink</code>
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public class UploadedPart {
+	
+	/**
+	 * the form field name
+	 */
+	private final String fieldName;
+	
+	/**
+	 * the original file name
+	 */
+	private final String fileName;
+	
+	/**
+	 * the content type
+	 */
+	private final String contentType;
+	
+	/**
+	 * where the sink stores it, i.e. a <code>Path</code>
+	 */
+	private Object location;
+	
+	/**
+	 * the size in bytes
+	 */
+	private long size = -1;
+	
+	/**
+	 * the checksum in hex
+	 */
+	private String checksum;
+
+	/**
+	 * constructor
+	 * @param fieldName
+	 * @param fileName
+	 * @param contentType
+	 */
+	public UploadedPart(String fieldName, String fileName, String contentType) {
+		this.fieldName = fieldName;
+		this.fileName = fileName;
+		this.contentType = contentType;
+	}
+	
+	/**
+	 * completes it with the size and the checksum
+	 * @param size
+	 * @param checksum
+	 */
+	void complete(long size, String checksum) {
+		this.size = size;
+		this.checksum = checksum;
+	}
+
+	/**
+	 * @return the fieldName
+	 */
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	/**
+	 * @return the fileName
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * @return the contentType
+	 */
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * @return the location
+	 */
+	public Object getLocation() {
+		return location;
+	}
+
+	/**
+	 * @param location the location to set
+	 */
+	public void setLocation(Object location) {
+		this.location = location;
+	}
+
+	/**
+	 * @return the size
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the checksum
+	 */
+	public String getChecksum() {
+		return checksum;
+	}
+}
@@ -31,18 +31,41 @@ import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 import org.springframework.web.multipart.commons.CommonsMultipartResolver;
 
+import com.pyrube.wea.session.ChunkedUploadRegistry;
 import com.pyrube.wea.session.UploadProgressListener;
+import com.pyrube.wea.session.UploadProgressRegistry;
 
 /**
- * WEA multipart resolver
+ * WEA multipart resolver. it keeps no request state, a file upload with its own progress 
+ * listener is prepared per request.
+ * <br>
+ * the parts are written into memory up to <code>maxInMemorySize</code> bytes, and spilled 
+ * into <code>uploadTempDir</code> beyond it. <code>maxUploadSize</code> and 
+ * <code>maxUploadSizePerFile</code> limit the request and each file (-1 for no limit).
+ * <br>
+ * in streaming mode, nothing is materialized: the request is resolved as a 
+ * <code>WeaStreamingMultipartRequest</code>, and the controller reads the parts in order 
+ * from its <code>getItemIterator()</code>, each part with its own <code>InputStream</code>. 
+ * if an <code>uploadSink</code> is configured, the file parts are streamed into it on resolving 
+ * (a <code>FileChannel</code> with <code>transferFrom</code>), with a checksum computed on the 
+ * fly, and the controller takes them by <code>getUploadedParts()</code>. the parts not taken 
+ * are discarded from the sink on cleanup. 
  * <pre>
  * configure it in spring servlet context file:
  * 
  * <beans:bean id="multipartResolver" class="com.pyrube.wea.ui.resolvers.core.WeaMultipartResolver">
  *   <beans:property name="defaultEncoding" value="UTF-8" />
  *   <beans:property name="maxUploadSize" value="#{1*1024*1024}" />
+ *   <beans:property name="maxUploadSizePerFile" value="#{1*1024*1024}" />
  *   <beans:property name="maxInMemorySize" value="#{1*1024*1024}" />
  *   <beans:property name="uploadTempDir" value="temp/upload" />
+ *   <beans:property name="uploadProgressTtl" value="600" />
+ *   <beans:property name="streaming" value="false" />
+ *   <beans:property name="uploadSink" ref="uploadSink" />
+ *   <beans:property name="checksumAlgorithm" value="SHA-256" />
+ *   <beans:property name="chunkedUploadDir" value="temp/chunked" />
+ *   <beans:property name="chunkedUploadTtl" value="86400" />
+ *   <beans:property name="chunkedUploadsPerOwner" value="8" />
  * </beans:bean>
  * </pre>
  * 
@@ -51,43 +74,167 @@ import com.pyrube.wea.session.UploadProgressListener;
  * @since Pyrube-WEA 1.1
  */
 public class WeaMultipartResolver extends CommonsMultipartResolver {
+	
 	/**
-	 * request
+	 * whether the parts are streamed to the controller instead of being materialized
 	 */
-	private HttpServletRequest request;
+	private boolean streaming = false;
+	
+	/**
+	 * the sink the file parts are streamed into in streaming mode. null means the controller reads the parts
+	 */
+	private UploadSink uploadSink = null;
+	
+	/**
+	 * the checksum algorithm of the file parts streamed into the sink
+	 */
+	private String checksumAlgorithm = "SHA-256";
+
+	/**
+	 * sets the ttl (in seconds) of the upload progresses not updated any more
+	 * @param uploadProgressTtl
+	 */
+	public void setUploadProgressTtl(int uploadProgressTtl) {
+		UploadProgressRegistry.setTtl(uploadProgressTtl * 1000L);
+	}
+
+	/**
+	 * sets the directory of the temp files of the resumable chunked uploads
+	 * @param chunkedUploadDir
+	 */
+	public void setChunkedUploadDir(String chunkedUploadDir) {
+		ChunkedUploadRegistry.setDirectory(chunkedUploadDir);
+	}
+
+	/**
+	 * sets the ttl (in seconds) of the resumable chunked uploads not updated any more
+	 * @param chunkedUploadTtl
+	 */
+	public void setChunkedUploadTtl(int chunkedUploadTtl) {
+		ChunkedUploadRegistry.setTtl(chunkedUploadTtl * 1000L);
+	}
+
+	/**
+	 * sets the maximum number of the resumable chunked uploads not completed per user (-1 for no limit)
+	 * @param chunkedUploadsPerOwner
+	 */
+	public void setChunkedUploadsPerOwner(int chunkedUploadsPerOwner) {
+		ChunkedUploadRegistry.setMaxUploadsPerOwner(chunkedUploadsPerOwner);
+	}
+
+	/**
+	 * sets the maximum size of a request, which also limits a resumable chunked upload 
+	 * (1 GB by default)
+	 * @param maxUploadSize
+	 */
+	@Override
+	public void setMaxUploadSize(long maxUploadSize) {
+		super.setMaxUploadSize(maxUploadSize);
+		ChunkedUploadRegistry.setMaxSize(maxUploadSize);
+	}
+
+	/**
+	 * @return the streaming
+	 */
+	public boolean isStreaming() {
+		return streaming;
+	}
+
+	/**
+	 * @param streaming the streaming to set
+	 */
+	public void setStreaming(boolean streaming) {
+		this.streaming = streaming;
+	}
+
+	/**
+	 * @return the uploadSink
+	 */
+	public UploadSink getUploadSink() {
+		return uploadSink;
+	}
+
+	/**
+	 * @param uploadSink the uploadSink to set
+	 */
+	public void setUploadSink(UploadSink uploadSink) {
+		this.uploadSink = uploadSink;
+	}
+
+	/**
+	 * @return the checksumAlgorithm
+	 */
+	public String getChecksumAlgorithm() {
+		return checksumAlgorithm;
+	}
+
+	/**
+	 * @param checksumAlgorithm the checksumAlgorithm to set
+	 */
+	public void setChecksumAlgorithm(String checksumAlgorithm) {
+		this.checksumAlgorithm = checksumAlgorithm;
+	}
 
 	@Override
 	protected FileUpload newFileUpload(FileItemFactory fileItemFactory) {
-		ServletFileUpload upload = new ServletFileUpload(fileItemFactory);
-		upload.setSizeMax(-1);
-		if (this.request != null) {
-			UploadProgressListener listener = new UploadProgressListener(this.request);
-			upload.setProgressListener(listener);
-		}
-		return upload;
+		return new ServletFileUpload(fileItemFactory);
 	}
 
 	@Override
 	public MultipartHttpServletRequest resolveMultipart(HttpServletRequest request)
 		throws MultipartException {
-		this.request = request;
+		if (this.streaming) {
+			WeaStreamingMultipartRequest streamingRequest 
+				= new WeaStreamingMultipartRequest(request, prepareRequestFileUpload(request, determineEncoding(request)));
+			if (this.uploadSink != null) streamingRequest.transferTo(this.uploadSink, this.checksumAlgorithm);
+			return streamingRequest;
+		}
 		return super.resolveMultipart(request);
 	}
 
+	@Override
+	public void cleanupMultipart(MultipartHttpServletRequest request) {
+		if (request instanceof WeaStreamingMultipartRequest) {
+			((WeaStreamingMultipartRequest) request).discardUnclaimedParts();
+			return;
+		}
+		super.cleanupMultipart(request);
+	}
+
 	@Override
 	public MultipartParsingResult parseRequest(HttpServletRequest request)
 		throws MultipartException {
-		String encoding = determineEncoding(this.request);
-		FileUpload fileUpload = prepareFileUpload(encoding);
-		UploadProgressListener listener = new UploadProgressListener(this.request);
-		fileUpload.setProgressListener(listener);
+		String encoding = determineEncoding(request);
+		ServletFileUpload fileUpload = prepareRequestFileUpload(request, encoding);
+		UploadProgressListener listener = (UploadProgressListener) fileUpload.getProgressListener();
 		try {
-			List<FileItem> fileItems = ((ServletFileUpload) fileUpload).parseRequest(this.request);
+			List<FileItem> fileItems = fileUpload.parseRequest(request);
 			return parseFileItems(fileItems, encoding);
 		} catch (FileUploadBase.SizeLimitExceededException ex) {
 			throw new MaxUploadSizeExceededException(fileUpload.getSizeMax(), ex);
+		} catch (FileUploadBase.FileSizeLimitExceededException ex) {
+			throw new MaxUploadSizeExceededException(fileUpload.getFileSizeMax(), ex);
 		} catch (FileUploadException ex) {
 			throw new MultipartException("Could not parse multipart servlet request", ex);
+		} finally {
+			listener.complete();
 		}
 	}
+
+	/**
+	 * prepares a file upload for the given request. it takes the limits of the configured 
+	 * file upload, and has its own progress listener, so it is never shared by requests.
+	 * @param request
+	 * @param encoding
+	 * @return ServletFileUpload
+	 */
+	protected ServletFileUpload prepareRequestFileUpload(HttpServletRequest request, String encoding) {
+		FileUpload configured = getFileUpload();
+		ServletFileUpload fileUpload = new ServletFileUpload(getFileItemFactory());
+		fileUpload.setSizeMax(configured.getSizeMax());
+		fileUpload.setFileSizeMax(configured.getFileSizeMax());
+		fileUpload.setHeaderEncoding(encoding);
+		fileUpload.setProgressListener(new UploadProgressListener(request));
+		return fileUpload;
+	}
 }
@@ -0,0 +1,321 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+
+package com.pyrube.wea.ui.resolvers.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadBase;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.fileupload.util.Streams;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.support.DefaultMultipartHttpServletRequest;
+
+import com.pyrube.wea.session.UploadProgressListener;
+
+/**
+ * a multipart request resolved in streaming mode. nothing is parsed in advance: the 
+ * controller takes this request as an argument and reads the parts (form fields and 
+ * files) in order from <code>getItemIterator()</code>. each part must be consumed before 
+ * moving to the next one, so the heap is constant whatever the upload size is.
+ * <br>
+ * alternatively, <code>transferTo(..)</code> streams all the file parts into an 
+ * <code>UploadSink</code> with a checksum computed on the fly, and makes the form fields 
+ * available as request parameters. <code>WeaMultipartResolver</code> does it on resolving 
+ * if an upload sink is configured. the controller takes the ownership of the transferred 
+ * parts by <code>getUploadedParts()</code>, otherwise they are discarded from the sink 
+ * once the request is completed (i.e. no handler is found).
+ * <br>
+ * <code>getFile(..)</code> and the other <code>MultipartFile</code> methods find nothing.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public class WeaStreamingMultipartRequest extends DefaultMultipartHttpServletRequest {
+	
+	/**
+	 * the size of a transfer to a file channel, and of the buffer to other channels
+	 */
+	private static final int TRANSFER_SIZE = 64 * 1024;
+	
+	/**
+	 * the buffer to copy into the channels other than file channel. it is a heap buffer 
+	 * of this request (shared by its parts), since the source channel wraps a stream and 
+	 * copies through a heap array anyway, and nothing is kept per thread.
+	 */
+	private ByteBuffer buffer = null;
+	
+	/**
+	 * the file upload prepared for this request
+	 */
+	private final ServletFileUpload fileUpload;
+	
+	/**
+	 * the item iterator. it is created once
+	 */
+	private FileItemIterator itemIterator = null;
+	
+	/**
+	 * the file parts transferred into the upload sink
+	 */
+	private List<UploadedPart> uploadedParts = Collections.emptyList();
+
+	/**
+	 * the upload sink the file parts are transferred into
+	 */
+	private UploadSink uploadSink = null;
+
+	/**
+	 * whether the transferred file parts are taken by the controller
+	 */
+	private boolean partsClaimed = false;
+
+	/**
+	 * constructor
+	 * @param request
+	 * @param fileUpload the file upload prepared for this request
+	 */
+	public WeaStreamingMultipartRequest(HttpServletRequest request, ServletFileUpload fileUpload) {
+		super(request);
+		this.fileUpload = fileUpload;
+	}
+	
+	/**
+	 * returns the iterator of the parts. the size limits are checked while reading, 
+	 * and the upload progress is completed once the last part is reached.
+	 * @return FileItemIterator
+	 * @throws MultipartException if the request cannot be parsed
+	 */
+	public FileItemIterator getItemIterator() throws MultipartException {
+		if (itemIterator == null) {
+			try {
+				itemIterator = new ProgressCompletingIterator(fileUpload.getItemIterator(getRequest()), 
+						(UploadProgressListener) fileUpload.getProgressListener());
+			} catch (FileUploadBase.SizeLimitExceededException ex) {
+				throw new MaxUploadSizeExceededException(fileUpload.getSizeMax(), ex);
+			} catch (FileUploadException | IOException ex) {
+				throw new MultipartException("Could not parse multipart servlet request", ex);
+			}
+		}
+		return itemIterator;
+	}
+	
+	/**
+	 * streams all the file parts into the given sink, and holds the form fields as 
+	 * request parameters. the upload progress is reported as the parts are read. 
+	 * if it fails, all the parts transferred are discarded. otherwise, the parts 
+	 * are discarded on cleanup unless they are taken by <code>getUploadedParts()</code>.
+	 * @param sink the upload sink
+	 * @param checksumAlgorithm the <code>MessageDigest</code> algorithm of the checksums, i.e. SHA-256
+	 * @return the file parts transferred
+	 * @throws MultipartException if the request cannot be parsed or written into the sink
+	 */
+	public List<UploadedPart> transferTo(UploadSink sink, String checksumAlgorithm) throws MultipartException {
+		FileItemIterator it = getItemIterator();
+		Map<String, String[]> parameters = getMultipartParameters();
+		Map<String, String> contentTypes = getMultipartParameterContentTypes();
+		String encoding = fileUpload.getHeaderEncoding();
+		List<UploadedPart> parts = new ArrayList<UploadedPart>();
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(checksumAlgorithm);
+		} catch (NoSuchAlgorithmException ex) {
+			throw new MultipartException("Could not transfer multipart servlet request", ex);
+		}
+		try {
+			while (it.hasNext()) {
+				FileItemStream item = it.next();
+				try (InputStream in = item.openStream()) {
+					if (item.isFormField()) {
+						String value = (encoding != null) ? Streams.asString(in, encoding) : Streams.asString(in);
+						parameters.put(item.getFieldName(), 
+								StringUtils.addStringToArray(parameters.get(item.getFieldName()), value));
+						contentTypes.put(item.getFieldName(), item.getContentType());
+					} else if (StringUtils.hasLength(item.getName())) {
+						parts.add(transfer(item, in, sink, digest));
+					}
+				}
+			}
+		} catch (FileUploadException | IOException ex) {
+			discard(sink, parts);
+			throw toMultipartException(ex);
+		} catch (RuntimeException ex) {
+			discard(sink, parts);
+			throw ex;
+		}
+		this.uploadSink = sink;
+		this.uploadedParts = Collections.unmodifiableList(parts);
+		return this.uploadedParts;
+	}
+	
+	/**
+	 * converts the given exception thrown while reading the parts. in streaming mode, the size 
+	 * limit exceptions are wrapped in <code>FileUploadIOException</code>.
+	 * @param ex
+	 * @return MultipartException
+	 */
+	private MultipartException toMultipartException(Exception ex) {
+		Throwable cause = (ex instanceof FileUploadBase.FileUploadIOException && ex.getCause() != null) ? ex.getCause() : ex;
+		if (cause instanceof FileUploadBase.SizeLimitExceededException) {
+			return new MaxUploadSizeExceededException(fileUpload.getSizeMax(), cause);
+		} else if (cause instanceof FileUploadBase.FileSizeLimitExceededException) {
+			return new MaxUploadSizeExceededException(fileUpload.getFileSizeMax(), cause);
+		}
+		return new MultipartException("Could not transfer multipart servlet request", cause);
+	}
+	
+	/**
+	 * discards the given file parts from the sink
+	 * @param sink
+	 * @param parts
+	 */
+	private static void discard(UploadSink sink, List<UploadedPart> parts) {
+		for (UploadedPart part : parts) {
+			sink.discard(part);
+		}
+	}
+	
+	/**
+	 * discards the transferred file parts if the controller did not take them
+	 */
+	public void discardUnclaimedParts() {
+		if (this.uploadSink != null && !this.partsClaimed) {
+			discard(this.uploadSink, this.uploadedParts);
+			this.uploadedParts = Collections.emptyList();
+		}
+	}
+	
+	/**
+	 * streams a file part into the sink
+	 * @param item
+	 * @param in the stream of the item
+	 * @param sink
+	 * @param digest
+	 * @return UploadedPart
+	 * @throws IOException
+	 */
+	private UploadedPart transfer(FileItemStream item, InputStream in, UploadSink sink, MessageDigest digest) throws IOException {
+		UploadedPart part = new UploadedPart(item.getFieldName(), item.getName(), item.getContentType());
+		ReadableByteChannel src = Channels.newChannel(new DigestInputStream(in, digest));
+		try (WritableByteChannel dst = sink.open(part)) {
+			long size = 0;
+			if (dst instanceof FileChannel) {
+				FileChannel fc = (FileChannel) dst;
+				long n;
+				while ((n = fc.transferFrom(src, size, TRANSFER_SIZE)) > 0) size += n;
+			} else {
+				if (buffer == null) buffer = ByteBuffer.allocate(TRANSFER_SIZE);
+				buffer.clear();
+				while (src.read(buffer) >= 0 || buffer.position() > 0) {
+					buffer.flip();
+					size += dst.write(buffer);
+					buffer.compact();
+				}
+			}
+			part.complete(size, toHex(digest.digest()));
+		} catch (IOException | RuntimeException e) {
+			sink.discard(part);
+			throw e;
+		}
+		return part;
+	}
+	
+	/**
+	 * returns the hex string of the given bytes
+	 * @param bytes
+	 * @return String
+	 */
+	private static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[i * 2] = Character.forDigit((bytes[i] >> 4) & 0xF, 16);
+			chars[i * 2 + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+		}
+		return new String(chars);
+	}
+	
+	/**
+	 * returns the file parts transferred into the upload sink. the caller takes the ownership 
+	 * of them, they are not discarded any more when the request is completed.
+	 * @return List
+	 */
+	public List<UploadedPart> getUploadedParts() {
+		this.partsClaimed = true;
+		return uploadedParts;
+	}
+
+	@Override
+	protected void initializeMultipart() {
+		setMultipartFiles(new LinkedMultiValueMap<>());
+		setMultipartParameters(new LinkedHashMap<String, String[]>());
+		setMultipartParameterContentTypes(new HashMap<String, String>());
+	}
+	
+	/**
+	 * an item iterator completing the upload progress once no more item
+	 */
+	private static class ProgressCompletingIterator implements FileItemIterator {
+		private final FileItemIterator delegate;
+		private final UploadProgressListener listener;
+		
+		/**
+		 * constructor
+		 * @param delegate
+		 * @param listener
+		 */
+		ProgressCompletingIterator(FileItemIterator delegate, UploadProgressListener listener) {
+			this.delegate = delegate;
+			this.listener = listener;
+		}
+
+		@Override
+		public boolean hasNext() throws FileUploadException, IOException {
+			boolean hasNext = delegate.hasNext();
+			if (!hasNext) listener.complete();
+			return hasNext;
+		}
+
+		@Override
+		public FileItemStream next() throws FileUploadException, IOException {
+			return delegate.next();
+		}
+	}
+}
@@ -35,6 +35,10 @@ public abstract class AccessControllingTag extends JseaElementSupportTag impleme
 	 * serial version uid
 	 */
 	private static final long serialVersionUID = 9169246654428043810L;
+	/**
+	 * the fragment kind of the JSEA stylization method value
+	 */
+	private static final String FRAGMENT_STYLE_OPTIONS = "styleOptions";
 	/**
 	 * permission to access
 	 */
@@ -123,9 +127,18 @@ public abstract class AccessControllingTag extends JseaElementSupportTag impleme
 	}
 
 	/**
-	 * determines the JSEA stylization method value for this tag
+	 * determines the JSEA stylization method value for this tag. it depends on the static 
+	 * rule attributes only, so it is built once per distinct set of rules.
 	 */
 	protected String resolveJseaStyleOptions() throws JspException {
+		return TagFragments.resolve(FRAGMENT_STYLE_OPTIONS, this::buildJseaStyleOptions, 
+				this.getInactive(), this.getHidden(), this.getInvisible(), this.getGone());
+	}
+
+	/**
+	 * builds the JSEA stylization method value for this tag
+	 */
+	private String buildJseaStyleOptions() throws JspException {
 		JseaOptionsBuilder jsob = JseaOptionsBuilder.newBuilder();
 		String inactiveRules = this.getInactive();
 		if (!Strings.isEmpty(inactiveRules)) {
@@ -250,6 +250,12 @@ public class ColumnTag extends JseaElementSupportTag implements OperationAware {
 		return EVAL_BODY_INCLUDE;
 	}
 	
+	@Override
+	protected String getLocalizableAttribute(String attrName) throws JspException {
+		if ("header".equals(attrName)) return this.getHeader();
+		return super.getLocalizableAttribute(attrName);
+	}
+
 	@Override
 	public int doEndTag() throws JspException {
 		TagWriter tagWriter = getTagWriter();
@@ -552,6 +552,13 @@ public abstract class FieldTag extends JseaElementSupportTag {
 		return super.doEndTag();
 	}
 
+	@Override
+	protected String getLocalizableAttribute(String attrName) throws JspException {
+		if (TagConstants.HTML_ATTR_PLACEHOLDER.equals(attrName)) return this.getPlaceholder();
+		if (TagConstants.JSEA_OPTION_HELP.equals(attrName)) return this.getHelp();
+		return super.getLocalizableAttribute(attrName);
+	}
+
 	@Override
 	protected String resolveStylesheet() throws JspException {
 		String stylesheet = super.resolveStylesheet();
@@ -680,9 +687,9 @@ public abstract class FieldTag extends JseaElementSupportTag {
 
 	@Override
 	protected String resolveCssClass() throws JspException {
-		StringBuffer buf = new StringBuffer();
+		StringBuilder buf = new StringBuilder();
 		String cssClass = super.resolveCssClass();
-		if (!Strings.isEmpty(cssClass)) { buf.append(cssClass + " "); }
+		if (!Strings.isEmpty(cssClass)) { buf.append(cssClass).append(' '); }
 		if (this.isRequired()) { buf.append("required "); }
 		if (this.isReadonly()) { buf.append("readonly "); }
 		return buf.toString().trim();
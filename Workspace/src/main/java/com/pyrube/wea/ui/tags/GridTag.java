@@ -47,6 +47,7 @@ public class GridTag extends JseaElementSupportTag {
 	
 	private String header;
 	private String funcname;
+	private String i18nNamespaces;
 	private String url;
 	private String rsProp;
 	private Object rs;
@@ -102,6 +103,20 @@ public class GridTag extends JseaElementSupportTag {
 		this.funcname = funcname;
 	}
 
+	/**
+	 * @return the i18nNamespaces
+	 */
+	public String getI18nNamespaces() {
+		return i18nNamespaces;
+	}
+
+	/**
+	 * @param i18nNamespaces the i18nNamespaces to set
+	 */
+	public void setI18nNamespaces(String i18nNamespaces) {
+		this.i18nNamespaces = i18nNamespaces;
+	}
+
 	/**
 	 * @return the url
 	 */
@@ -372,6 +387,7 @@ public class GridTag extends JseaElementSupportTag {
 	protected String resolveJseaOptions() {
 		JseaOptionsBuilder jsob = JseaOptionsBuilder.newBuilder();
 		jsob.appendJseaOption(TagConstants.JSEA_OPTION_FUNCNAME, getFuncname())
+			.appendJseaOption(TagConstants.JSEA_OPTION_I18N_NAMESPACES, getI18nNamespaces())
 			.appendJseaOption(TagConstants.JSEA_OPTION_URL, getUrl())
 			.appendJseaOption(TagConstants.JSEA_OPTION_RS_PROP, getRsProp())
 			.appendJseaOption(TagConstants.JSEA_OPTION_RESULTSET, getRs())
@@ -37,6 +37,10 @@ public abstract class JseaActionElementTag extends AccessControllingTag {
 	 * serial version uid
 	 */
 	private static final long serialVersionUID = 8292234395881763174L;
+	/**
+	 * the fragment kind of the css class
+	 */
+	private static final String FRAGMENT_CSS_CLASS = "actionCssClass";
 
 	private static final String EM_TAG = "em";
 	private static final String SPAN_TAG = "span";
@@ -278,11 +282,26 @@ public abstract class JseaActionElementTag extends AccessControllingTag {
 		super.appendJseaOptions(jsob);
 	}
 
+	/**
+	 * the css class of an action element not bound to a path depends on its static 
+	 * attributes only, so it is built once per distinct set of them.
+	 */
 	@Override
 	protected String resolveCssClass() throws JspException {
+		if (!Strings.isEmpty(this.getPath())) return buildCssClass();
+		return TagFragments.resolve(FRAGMENT_CSS_CLASS, this::buildCssClass, 
+				this.getClass(), this.getDefaultCssClass(), this.getCssClass(), this.isDisabled(), this.isToggleable());
+	}
+
+	/**
+	 * builds the css class of this element
+	 * @return
+	 * @throws JspException
+	 */
+	private String buildCssClass() throws JspException {
 		String cssClass = super.resolveCssClass();
-		StringBuffer buf = new StringBuffer();
-		if (!Strings.isEmpty(cssClass)) { buf.append(cssClass + " "); }
+		StringBuilder buf = new StringBuilder();
+		if (!Strings.isEmpty(cssClass)) { buf.append(cssClass).append(' '); }
 		if (this.isToggleable()) { buf.append("toggleable "); }
 		return buf.toString().trim();
 	}
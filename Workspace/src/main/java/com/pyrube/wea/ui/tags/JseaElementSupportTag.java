@@ -17,7 +17,6 @@
 package com.pyrube.wea.ui.tags;
 
 import java.lang.reflect.InvocationTargetException;
-import java.math.BigInteger;
 import java.util.Date;
 import java.util.TimeZone;
 
@@ -25,16 +24,14 @@ import javax.servlet.jsp.JspException;
 import javax.servlet.jsp.PageContext;
 
 import org.apache.commons.beanutils.BeanUtils;
-import org.springframework.core.Conventions;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.tags.form.AbstractHtmlElementTag;
 import org.springframework.web.servlet.tags.form.TagWriter;
 
-import com.pyrube.one.app.Apps;
 import com.pyrube.one.lang.Strings;
 import com.pyrube.wea.context.WebContextHolder;
-import com.pyrube.wea.util.Weas;
+import com.pyrube.wea.format.core.LocalFormats;
 
 /**
  * Super class for databinding-aware JSP tag for rendering an HTML <code>Element</code> whose
@@ -54,6 +51,11 @@ public abstract class JseaElementSupportTag extends AbstractHtmlElementTag {
 
 	protected static final String LABEL_TAG = "label";
 
+	/**
+	 * the class of a required wrapper or label
+	 */
+	private static final String REQUIRED_CLASS = "required";
+
 	/**
 	 * The name of the '{@code disabled}' attribute.
 	 */
@@ -333,10 +335,10 @@ public abstract class JseaElementSupportTag extends AbstractHtmlElementTag {
 	protected void writeWrapper(TagWriter tagWriter) throws JspException {
 		if (this.isWrapping()) {
 			tagWriter.startTag(WRAPPER_TAG);
-			StringBuffer buf = new StringBuffer();
+			StringBuilder buf = new StringBuilder();
 			String stylesheet = resolveStylesheet();
-			if (!Strings.isEmpty(stylesheet)){ buf.append(stylesheet + " "); }
-			if (this.isRequired()) { buf.append("required"); }
+			if (!Strings.isEmpty(stylesheet)){ buf.append(stylesheet).append(' '); }
+			if (this.isRequired()) { buf.append(REQUIRED_CLASS); }
 			String wrapperClass = buf.toString().trim();
 			if (!Strings.isEmpty(wrapperClass)) {
 				tagWriter.writeAttribute(TagConstants.HTML_ATTR_CLASS, wrapperClass);
@@ -360,11 +362,8 @@ public abstract class JseaElementSupportTag extends AbstractHtmlElementTag {
 	protected void writeLabel(TagWriter tagWriter) throws JspException {
 		if (!String.valueOf(false).equalsIgnoreCase(this.getLabel())) {
 			tagWriter.startTag(LABEL_TAG);
-			StringBuffer buf = new StringBuffer();
-			if (this.isRequired()) { buf.append("required"); }
-			String labelClass = buf.toString().trim();
-			if (!Strings.isEmpty(labelClass)) {
-				tagWriter.writeAttribute(TagConstants.HTML_ATTR_CLASS, labelClass);
+			if (this.isRequired()) {
+				tagWriter.writeAttribute(TagConstants.HTML_ATTR_CLASS, REQUIRED_CLASS);
 			}
 			tagWriter.appendValue(localizeAttribute("label"));
 			tagWriter.endTag();
@@ -425,14 +424,14 @@ public abstract class JseaElementSupportTag extends AbstractHtmlElementTag {
 
 	@Override
 	protected String resolveCssClass() throws JspException {
-		StringBuffer buf = new StringBuffer();
+		StringBuilder buf = new StringBuilder();
 		String defaultCssClass = this.getDefaultCssClass();
-		if (!Strings.isEmpty(defaultCssClass)) { buf.append(defaultCssClass + " "); }
+		if (!Strings.isEmpty(defaultCssClass)) { buf.append(defaultCssClass).append(' '); }
 		String cssClass 
 			= (Strings.isEmpty(this.getPath()))
 				? ObjectUtils.getDisplayString(evaluate("cssClass", getCssClass()))
 				: super.resolveCssClass();
-		if (!Strings.isEmpty(cssClass)) { buf.append(cssClass + " "); }
+		if (!Strings.isEmpty(cssClass)) { buf.append(cssClass).append(' '); }
 		if (this.isDisabled()) { buf.append("disabled "); }
 		return buf.toString().trim();
 	}
@@ -538,6 +537,16 @@ public abstract class JseaElementSupportTag extends AbstractHtmlElementTag {
 		}
 	}
 
+	/**
+	 * discards the cached labels and fragments of all the tags. the labels are also discarded 
+	 * once their resource bundle is replaced. it is called by <code>WeaConfigLoader</code> when 
+	 * the application starts up or shuts down.
+	 */
+	public static void clearCaches() {
+		TagMessages.clear();
+		TagFragments.clear();
+	}
+
 	/**
 	 * localizes a given attribute value
 	 * @param attrName
@@ -545,24 +554,35 @@ public abstract class JseaElementSupportTag extends AbstractHtmlElementTag {
 	 * @throws JspException
 	 */
 	protected String localizeAttribute(String attrName) throws JspException {
-		try {
-			String attrValue = BeanUtils.getProperty(this, attrName);
-			String code = null;
-			if (String.valueOf(true).equalsIgnoreCase(attrValue)) {
-				Object funcnameAttr =
-					this.pageContext.getAttribute(
-						Conventions.getQualifiedAttributeName(JseaFormSupportTag.class, "funcname"),
-						PageContext.REQUEST_SCOPE);
-				if (funcnameAttr != null) {
-					String funcname = (String)funcnameAttr;
-					code = funcname + "." + attrName + "." + this.getName();
-				} else {
-					code = "global." + attrName + "." + this.getName();
-				}
-			} else if (!String.valueOf(false).equalsIgnoreCase(attrValue)) {
-				code = attrValue;
+		String attrValue = this.getLocalizableAttribute(attrName);
+		String code = null;
+		if (String.valueOf(true).equalsIgnoreCase(attrValue)) {
+			Object funcnameAttr =
+				this.pageContext.getAttribute(JseaFormSupportTag.FUNCNAME_ATTRIBUTE_VARIABLE_NAME, PageContext.REQUEST_SCOPE);
+			if (funcnameAttr != null) {
+				String funcname = (String)funcnameAttr;
+				code = funcname + "." + attrName + "." + this.getName();
+			} else {
+				code = "global." + attrName + "." + this.getName();
 			}
-			return Weas.localizeMessage(code);
+		} else if (!String.valueOf(false).equalsIgnoreCase(attrValue)) {
+			code = attrValue;
+		}
+		return TagMessages.localize(code);
+	}
+
+	/**
+	 * returns the value of a given localizable attribute. subclass with other 
+	 * localizable attributes (i.e. placeholder, header) could override this method 
+	 * to read them directly, the others are read as bean properties.
+	 * @param attrName
+	 * @return
+	 * @throws JspException if the attribute is not found
+	 */
+	protected String getLocalizableAttribute(String attrName) throws JspException {
+		if ("label".equals(attrName)) return this.getLabel();
+		try {
+			return BeanUtils.getProperty(this, attrName);
 		} catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
 			logger.error("Failed to find attribute: " + attrName, e);
 			throw new JspException("Failed to find attribute: " + attrName, e);
@@ -585,18 +605,13 @@ public abstract class JseaElementSupportTag extends AbstractHtmlElementTag {
 			if (isLocal()) {
 				localTimeZone = WebContextHolder.getWebContext().getTimezone();
 			}
-			return Apps.a.date.format.of(localeCode, nameOrPattern, localTimeZone).formats((Date) unformated);
+			return LocalFormats.dateFormatOf(localeCode, nameOrPattern, localTimeZone).format((Date) unformated);
 		} else
 		if (unformated instanceof Number) {
 			if (Strings.isEmpty(nameOrPattern)) {
-				nameOrPattern = ((unformated instanceof Byte)
-								|| (unformated instanceof Long)
-								|| (unformated instanceof Short)
-								|| (unformated instanceof Integer)
-								|| (unformated instanceof BigInteger)) ?
-					Apps.i18n.format.name.INTEGER : Apps.i18n.format.name.FLOAT;
+				nameOrPattern = LocalFormats.numberFormatNameOf((Number) unformated);
 			}
-			return Apps.a.number.format.of(localeCode, nameOrPattern).formats((Number) unformated);
+			return LocalFormats.numberFormatOf(localeCode, nameOrPattern).format(unformated);
 		}
 		return unformated.toString();
 	}
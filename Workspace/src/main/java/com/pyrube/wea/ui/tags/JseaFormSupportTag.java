@@ -64,6 +64,12 @@ public abstract class JseaFormSupportTag extends FormTag {
 	private String funcname;
 	private String operation;
 
+	/**
+	 * the i18n message namespaces (comma-separated) this form needs, i.e. "global,sample". 
+	 * they are loaded through <code>jsea/messages/{namespaces}</code>
+	 */
+	private String i18nNamespaces;
+
 	private String keyProp;
 	private String statProp = (String) AppConfig.getAppConfig().getAppProperty("STAT_PROP_DEFAULT");
 
@@ -148,6 +154,20 @@ public abstract class JseaFormSupportTag extends FormTag {
 		this.funcname = funcname;
 	}
 
+	/**
+	 * @return the i18nNamespaces
+	 */
+	public String getI18nNamespaces() {
+		return i18nNamespaces;
+	}
+
+	/**
+	 * @param i18nNamespaces the i18nNamespaces to set
+	 */
+	public void setI18nNamespaces(String i18nNamespaces) {
+		this.i18nNamespaces = i18nNamespaces;
+	}
+
 	/**
 	 * @return the operation
 	 */
@@ -372,6 +392,8 @@ public abstract class JseaFormSupportTag extends FormTag {
 		if (!Strings.isEmpty(basename)) jsob.appendJseaOption(TagConstants.JSEA_OPTION_BASENAME, basename);
 		String funname = this.getFuncname();
 		if (!Strings.isEmpty(funname)) jsob.appendJseaOption(TagConstants.JSEA_OPTION_FUNCNAME, funname);
+		String i18nNamespaces = this.getI18nNamespaces();
+		if (!Strings.isEmpty(i18nNamespaces)) jsob.appendJseaOption(TagConstants.JSEA_OPTION_I18N_NAMESPACES, i18nNamespaces);
 		String keyProp = this.getKeyProp();
 		if (!Strings.isEmpty(keyProp)) jsob.appendJseaOption(TagConstants.JSEA_OPTION_KEY_PROP, keyProp);
 		String mode = this.getMode();
@@ -22,13 +22,13 @@ import java.util.Map;
 
 import javax.servlet.jsp.JspException;
 
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
+import org.springframework.web.servlet.support.BindStatus;
 import org.springframework.web.servlet.tags.form.TagWriter;
 
 import com.pyrube.one.lang.Strings;
+import com.pyrube.wea.ui.tags.core.PropertyAccessors;
 import com.pyrube.wea.ui.tags.core.WeaSelectedValueComparator;
 import com.pyrube.wea.util.Weas;
 
@@ -71,6 +71,11 @@ public abstract class JseaMultiCheckedFieldSupportTag extends FieldTag implement
 	 */
 	private Object items;
 
+	/**
+	 * the bound values the items are matched against
+	 */
+	private WeaSelectedValueComparator.SelectedValues selectedValues;
+
 	/**
 	 * The name of the property mapped to the '{@code value}' attribute
 	 * of the '{@code input type="checkbox/radio"}' tag.
@@ -336,16 +341,15 @@ public abstract class JseaMultiCheckedFieldSupportTag extends FieldTag implement
 	private void writeObjectEntry(TagWriter tagWriter, String valueProperty,
 			String labelProperty, Object item, int itemIndex) throws JspException {
 
-		BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(item);
 		Object renderValue;
 		if (valueProperty != null) {
-			renderValue = wrapper.getPropertyValue(valueProperty);
+			renderValue = PropertyAccessors.getPropertyValue(item, valueProperty);
 		} else if (item instanceof Enum) {
 			renderValue = ((Enum<?>) item).name();
 		} else {
 			renderValue = item;
 		}
-		Object renderLabel = (labelProperty != null ? wrapper.getPropertyValue(labelProperty) : null);
+		Object renderLabel = (labelProperty != null ? PropertyAccessors.getPropertyValue(item, labelProperty) : null);
 		writeElementTag(tagWriter, item, renderValue, renderLabel, itemIndex);
 	}
 
@@ -354,12 +358,10 @@ public abstract class JseaMultiCheckedFieldSupportTag extends FieldTag implement
 
 		Object mapKey = entry.getKey();
 		Object mapValue = entry.getValue();
-		BeanWrapper mapKeyWrapper = PropertyAccessorFactory.forBeanPropertyAccess(mapKey);
-		BeanWrapper mapValueWrapper = PropertyAccessorFactory.forBeanPropertyAccess(mapValue);
 		Object renderValue = (valueProperty != null ?
-				mapKeyWrapper.getPropertyValue(valueProperty) : mapKey.toString());
+				PropertyAccessors.getPropertyValue(mapKey, valueProperty) : mapKey.toString());
 		Object renderLabel = (labelProperty != null ?
-				mapValueWrapper.getPropertyValue(labelProperty) : mapValue.toString());
+				PropertyAccessors.getPropertyValue(mapValue, labelProperty) : mapValue.toString());
 		writeElementTag(tagWriter, mapKey, renderValue, renderLabel, itemIndex);
 	}
 
@@ -383,7 +385,7 @@ public abstract class JseaMultiCheckedFieldSupportTag extends FieldTag implement
 		tagWriter.writeAttribute(TagConstants.HTML_ATTR_TYPE, resolveFieldType());
 		String displayValue = convertToDisplayString(value);
 		tagWriter.writeAttribute("value", processFieldValue(getName(), displayValue, this.resolveFieldType()));
-		if (WeaSelectedValueComparator.isSelected(getBindStatus(), displayValue)) {
+		if (isOptionSelected(displayValue)) {
 			tagWriter.writeAttribute("checked", "checked");
 		}
 		
@@ -416,12 +418,26 @@ public abstract class JseaMultiCheckedFieldSupportTag extends FieldTag implement
 		}
 	}
 
+	/**
+	 * releases the bound values, so the pooled tag does not keep the model of the last rendering
+	 */
+	@Override
+	public void doFinally() {
+		super.doFinally();
+		this.selectedValues = null;
+	}
+
 	/**
 	 * Determines whether the supplied value matched the selected value
-	 * through delegating to {@link SelectedValueComparator#isSelected}.
+	 * through delegating to {@link WeaSelectedValueComparator.SelectedValues#isSelected}.
+	 * the bound values are normalized once per bind status, i.e. once per rendering.
 	 */
 	private boolean isOptionSelected(String value) throws JspException {
-		return WeaSelectedValueComparator.isSelected(getBindStatus(), value);
+		BindStatus bindStatus = getBindStatus();
+		if (this.selectedValues == null || !this.selectedValues.isOf(bindStatus)) {
+			this.selectedValues = WeaSelectedValueComparator.selectedValuesOf(bindStatus);
+		}
+		return this.selectedValues.isSelected(value);
 	}
 
 }
@@ -16,16 +16,18 @@
 
 package com.pyrube.wea.ui.tags;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 import com.fasterxml.jackson.core.JsonParser.Feature;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.pyrube.one.app.persistence.Data;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.pyrube.one.lang.Strings;
+import com.pyrube.wea.format.converters.LocalizedObjectMapper;
 
 /**
  * The builder utility is used to build JSEA options for WEA tags, converting
@@ -43,6 +45,18 @@ public class JseaOptionsBuilder {
 	private static final String JSON_BRACE_OPEN    = "{", JSON_BRACE_CLOSE    = "}";
 	private static final String COLON = ":", COMMA = ",", SINGLE_QUOTE = "'";
 	
+	/**
+	 * the object writer shared by all builders. <code>ObjectMapper</code> is expensive 
+	 * to create, but it is thread-safe once configured. local timestamps of 
+	 * <code>Data</code> models are written by <code>LocalizedObjectMapper</code>.
+	 */
+	private static final ObjectWriter JSON_WRITER;
+	static {
+		ObjectMapper mapper = new LocalizedObjectMapper();
+		mapper.configure(Feature.ALLOW_SINGLE_QUOTES, true);
+		JSON_WRITER = mapper.writer();
+	}
+	
 	/**
 	 * whether rendering with braces '{}'
 	 */
@@ -83,15 +97,13 @@ public class JseaOptionsBuilder {
 				optionsBuilder.append(COMMA);
 			}
 			optionsBuilder.append(name).append(COLON);
-			String jsonString = null;
 			if (StringUtils.isEmpty(type)) {
-				jsonString = this.convertToJsonString(value);
+				this.appendJsonString(optionsBuilder, value);
 			} else if (JSEA_OPTION_TYPE_FUNCTION.equals(type)) {
-				jsonString = this.convertToJavascriptString(value);
+				optionsBuilder.append(this.convertToJavascriptString(value));
 			} else if (JSEA_OPTION_TYPE_OBJECT.equals(type)) {
-				jsonString = this.convertToJavascriptString(value);
+				optionsBuilder.append(this.convertToJavascriptString(value));
 			}
-			optionsBuilder.append(jsonString);
 		}
 		return this;
 	}	
@@ -154,24 +166,22 @@ public class JseaOptionsBuilder {
 	 * @see java.lang.Object#toString()
 	 */
 	public String toString() {
-		StringBuilder result = new StringBuilder();
 		if (this.renderingWithBraces) {
-			result.append(JSON_BRACE_OPEN)
-				.append(this.optionsBuilder.toString())
-				.append(JSON_BRACE_CLOSE);
-		} else {
-			result.append(this.optionsBuilder.toString());
+			return new StringBuilder(this.optionsBuilder.length() + 2)
+				.append(JSON_BRACE_OPEN)
+				.append(this.optionsBuilder)
+				.append(JSON_BRACE_CLOSE)
+				.toString();
 		}
-		return result.toString();
+		return this.optionsBuilder.toString();
 	}
 	
 	/**
-	 * 
+	 * appends the given value in JSON format to the given builder
+	 * @param buf
 	 * @param value
-	 * @return
 	 */
-	private String convertToJsonString(Object value) {
-		StringBuffer buf = new StringBuffer();
+	private void appendJsonString(StringBuilder buf, Object value) {
 		if (String.class.isInstance(value)) {
 			String strVal = (String) value;
 			if (strVal.startsWith(ARRAY_BRACKET_OPEN) && strVal.endsWith(ARRAY_BRACKET_CLOSE)) {
@@ -179,7 +189,7 @@ public class JseaOptionsBuilder {
 			} else if (strVal.startsWith(JSON_BRACE_OPEN) && strVal.endsWith(JSON_BRACE_CLOSE)) {
 				buf.append(strVal);
 			} else {
-				buf.append(SINGLE_QUOTE + strVal + SINGLE_QUOTE);
+				buf.append(SINGLE_QUOTE).append(strVal).append(SINGLE_QUOTE);
 			}
 		} else if (Boolean.class.isInstance(value)) {
 			buf.append(value.toString());
@@ -192,7 +202,7 @@ public class JseaOptionsBuilder {
 				if (i > 0) {
 					buf.append(COMMA);
 				}
-				buf.append(convertToJsonString(values[i]));
+				appendJsonString(buf, values[i]);
 			}
 			buf.append(ARRAY_BRACKET_CLOSE);
 		} else if (value instanceof List) {
@@ -202,23 +212,19 @@ public class JseaOptionsBuilder {
 				if (i > 0) {
 					buf.append(COMMA);
 				}
-				buf.append(convertToJsonString(list.get(i)));
+				appendJsonString(buf, list.get(i));
 			}
 			buf.append(ARRAY_BRACKET_CLOSE);
 		} else {
+			int mark = buf.length();
 			try {
-				if (value != null && value instanceof Data) {
-					localizeTimestamp(value);
-				}
 				// if optionValueObj is a value model, 
 				// change to string in json format {'sampleCode':'001','sampleName':'NAME OF 001'}
-				ObjectMapper mapper = new ObjectMapper();
-				mapper.configure(Feature.ALLOW_SINGLE_QUOTES, true);
-				buf.append(mapper.writeValueAsString(value));
-			} catch (JsonProcessingException e) {
+				JSON_WRITER.writeValue(new StringBuilderWriter(buf), value);
+			} catch (IOException e) {
+				buf.setLength(mark);
 			}
 		}
-		return buf.toString();
 	}
 	
 	private String convertToJavascriptString(Object value) {
@@ -226,10 +232,42 @@ public class JseaOptionsBuilder {
 	}	
 	
 	/**
-	 * localize the timestamp field with Local annotation in the given bean
-	 * @param bean
+	 * Writer appending to a <code>StringBuilder</code> directly
 	 */
-	private void localizeTimestamp(Object bean) {
-		// TO-DO
-	}	
+	private static class StringBuilderWriter extends Writer {
+		private final StringBuilder buf;
+		
+		StringBuilderWriter(StringBuilder buf) {
+			this.buf = buf;
+		}
+
+		@Override
+		public void write(int c) {
+			buf.append((char) c);
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			buf.append(cbuf, off, len);
+		}
+
+		@Override
+		public void write(String str, int off, int len) {
+			buf.append(str, off, off + len);
+		}
+
+		@Override
+		public Writer append(CharSequence csq) {
+			buf.append(csq);
+			return this;
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	}
 }
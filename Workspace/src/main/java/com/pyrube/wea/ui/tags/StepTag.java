@@ -148,6 +148,12 @@ public class StepTag extends JseaElementSupportTag implements BodyTag {
 		return jsob.toString();
 	}
 
+	@Override
+	protected String getLocalizableAttribute(String attrName) throws JspException {
+		if ("header".equals(attrName)) return this.getHeader();
+		return super.getLocalizableAttribute(attrName);
+	}
+
 	/**
 	 * write step header
 	 * @param tagWriter
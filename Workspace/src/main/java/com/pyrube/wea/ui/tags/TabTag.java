@@ -144,6 +144,12 @@ public class TabTag extends JseaElementSupportTag implements BodyTag  {
 		return jsob.toString();
 	}
 
+	@Override
+	protected String getLocalizableAttribute(String attrName) throws JspException {
+		if ("header".equals(attrName)) return this.getHeader();
+		return super.getLocalizableAttribute(attrName);
+	}
+
 	/**
 	 * write link tag as tab header
 	 * @param tabId
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+package com.pyrube.wea.ui.tags;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * a bounded cache of the strings rendered by the tags (i.e. localized labels, static 
+ * fragments). a value is built once per key, and null values are cached too. all the 
+ * values are discarded once the maximum size is reached.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+final class TagCache<K> {
+	
+	/**
+	 * the value held for a null value
+	 */
+	private static final String NULL_VALUE = new String();
+	
+	/**
+	 * the maximum number of the cached values
+	 */
+	private final int maxSize;
+	
+	/**
+	 * the values: {key : value}
+	 */
+	private final Map<K, String> values = new ConcurrentHashMap<K, String>();
+	
+	/**
+	 * builder of a value
+	 */
+	@FunctionalInterface
+	interface Builder<K, E extends Exception> {
+		String build(K key) throws E;
+	}
+	
+	/**
+	 * constructor
+	 * @param maxSize the maximum number of the cached values
+	 */
+	TagCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+	
+	/**
+	 * returns the value of the given key. it is built once by the given builder, 
+	 * which must depend on the key only.
+	 * @param key the key
+	 * @param builder the value builder
+	 * @return String. it could be null
+	 * @throws E if the value fails to be built
+	 */
+	<E extends Exception> String resolve(K key, Builder<? super K, E> builder) throws E {
+		String value = values.get(key);
+		if (value == null) {
+			value = builder.build(key);
+			if (value == null) value = NULL_VALUE;
+			if (values.size() >= maxSize) values.clear();
+			values.put(key, value);
+		}
+		return (value == NULL_VALUE) ? null : value;
+	}
+	
+	/**
+	 * discards all the values
+	 */
+	void clear() {
+		values.clear();
+	}
+}
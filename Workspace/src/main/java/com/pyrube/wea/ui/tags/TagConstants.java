@@ -108,6 +108,7 @@ public interface TagConstants {
 	public static final String JSEA_OPTION_POST_PROPS   = "postProps";
 	public static final String JSEA_OPTION_RETURN_PROPS = "returnProps";
 	public static final String JSEA_OPTION_I18N_PREFIX  = "i18nPrefix";
+	public static final String JSEA_OPTION_I18N_NAMESPACES = "i18nNamespaces";
 	/**
 	 * JSEA  Optional Option Constants
 	 */
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+
+package com.pyrube.wea.ui.tags;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.servlet.jsp.JspException;
+
+/**
+ * a cache of the static fragments of tag output (i.e. rules JSON, css classes) which 
+ * depend on the static tag attributes only. since the containers pool and reuse tag 
+ * handlers, a fragment is keyed by its kind and the attribute values it is built from, 
+ * never by the tag instance.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+final class TagFragments {
+	
+	/**
+	 * the maximum number of the cached fragments. all of them are discarded once it is reached
+	 */
+	private static final int MAX_FRAGMENTS = 4096;
+	
+	/**
+	 * the fragments: {[kind, attribute values...] : fragment}
+	 */
+	private static final TagCache<List<Object>> fragments = new TagCache<List<Object>>(MAX_FRAGMENTS);
+	
+	/**
+	 * builder of a fragment
+	 */
+	@FunctionalInterface
+	interface FragmentBuilder {
+		String build() throws JspException;
+	}
+	
+	/**
+	 * constructor
+	 */
+	private TagFragments() {
+	}
+	
+	/**
+	 * returns the fragment of the given kind built from the given attribute values. 
+	 * it is built once by the given builder, which must depend on these values only.
+	 * @param kind the fragment kind
+	 * @param builder the fragment builder
+	 * @param attrValues the attribute values
+	 * @return String. it could be null
+	 * @throws JspException
+	 */
+	static String resolve(String kind, FragmentBuilder builder, Object... attrValues) throws JspException {
+		Object[] keyValues = new Object[attrValues.length + 1];
+		keyValues[0] = kind;
+		System.arraycopy(attrValues, 0, keyValues, 1, attrValues.length);
+		return fragments.resolve(Arrays.asList(keyValues), key -> builder.build());
+	}
+	
+	/**
+	 * discards all the fragments
+	 */
+	static void clear() {
+		fragments.clear();
+	}
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+
+package com.pyrube.wea.ui.tags;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.pyrube.one.app.i18n.I18nManager;
+import com.pyrube.wea.context.WebContext;
+import com.pyrube.wea.context.WebContextHolder;
+
+/**
+ * a cache of the localized labels (i.e. label, placeholder, header) rendered by the tags. 
+ * the labels of a locale are kept with the resource bundle they are localized from, and 
+ * discarded once the bundle is reloaded.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+final class TagMessages {
+	
+	/**
+	 * the maximum number of the cached labels per locale. all of them are discarded once it is reached
+	 */
+	private static final int MAX_LABELS = 4096;
+	
+	/**
+	 * the labels: {locale : labels}
+	 */
+	private static final Map<Locale, Labels> labels = new ConcurrentHashMap<Locale, Labels>();
+	
+	/**
+	 * constructor
+	 */
+	private TagMessages() {
+	}
+	
+	/**
+	 * localizes the given code with the locale in current <code>WebContext</code>. 
+	 * if no <code>WebContext</code> found, it will use application default locale.
+	 * @param code the message code
+	 * @return String
+	 */
+	static String localize(String code) {
+		WebContext webContext = WebContextHolder.getWebContext();
+		Locale locale = (webContext != null) ? webContext.getLocale() : null;
+		if (locale == null) locale = I18nManager.getDefaultLocale();
+		if (code == null) return I18nManager.getMessage(code, null, locale);
+		ResourceBundle rb = I18nManager.getResourceBundle(locale);
+		Labels localeLabels = labels.get(locale);
+		if (localeLabels == null || localeLabels.rb != rb) {
+			localeLabels = new Labels(locale, rb);
+			labels.put(locale, localeLabels);
+		}
+		return localeLabels.labels.resolve(code, localeLabels);
+	}
+	
+	/**
+	 * discards all the labels
+	 */
+	static void clear() {
+		labels.clear();
+	}
+	
+	/**
+	 * the labels localized from one resource bundle. it localizes the missing labels itself.
+	 */
+	private static class Labels implements TagCache.Builder<String, RuntimeException> {
+		/**
+		 * the locale of the labels
+		 */
+		private final Locale locale;
+		/**
+		 * the resource bundle the labels are localized from
+		 */
+		private final ResourceBundle rb;
+		/**
+		 * the labels: {code : label}
+		 */
+		private final TagCache<String> labels = new TagCache<String>(MAX_LABELS);
+		/**
+		 * constructor
+		 * @param locale
+		 * @param rb
+		 */
+		private Labels(Locale locale, ResourceBundle rb) {
+			this.locale = locale;
+			this.rb = rb;
+		}
+		@Override
+		public String build(String code) {
+			return I18nManager.getMessage(code, null, locale);
+		}
+	}
+}
@@ -78,6 +78,24 @@ public class UploadTag extends TextfieldTag {
 	 */
 	private String progressbarId;
 
+	/**
+	 * JSEA Optional Option, how the upload progress is observed as below
+	 * polling : requests <code>jsea/upload/progress</code> repeatedly
+	 * stream  : opens <code>jsea/upload/progress/stream</code> (server-sent events)
+	 */
+	private String progressMode;
+
+	/**
+	 * JSEA Optional Option, the chunk size in bytes to upload a file in resumable chunks 
+	 * (<code>jsea/upload/chunked/*</code>). 0 means one request per file
+	 */
+	private int chunkSize = 0;
+
+	/**
+	 * JSEA Optional Option, the number of chunks uploaded in parallel
+	 */
+	private int parallelism = 1;
+
 	/**
 	 * JSEA Event, callback after ajax upload success
 	 */
@@ -214,6 +232,48 @@ public class UploadTag extends TextfieldTag {
 		this.progressbarId = progressbarId;
 	}
 
+	/**
+	 * @return the progressMode
+	 */
+	public String getProgressMode() {
+		return progressMode;
+	}
+
+	/**
+	 * @param progressMode the progressMode to set
+	 */
+	public void setProgressMode(String progressMode) {
+		this.progressMode = progressMode;
+	}
+
+	/**
+	 * @return the chunkSize
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * @param chunkSize the chunkSize to set
+	 */
+	public void setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * @return the parallelism
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * @param parallelism the parallelism to set
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
 	/**
 	 * @return the onSuccess
 	 */
@@ -247,7 +307,12 @@ public class UploadTag extends TextfieldTag {
 			jsob.appendJseaOption("hasTrigger2", true);
 			jsob.appendJseaOption("trigger2Id", this.getTrigger2Id());
 		}
-		jsob.appendJseaOption("progressbarId", this.getProgressbarId());
+		jsob.appendJseaOption("progressbarId", this.getProgressbarId())
+			.appendJseaOption("progressMode", this.getProgressMode());
+		if (this.getChunkSize() > 0) {
+			jsob.appendJseaOption("chunkSize", this.getChunkSize())
+				.appendJseaOption("parallelism", Math.max(1, this.getParallelism()));
+		}
 	}
 
 	@Override
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright 2019, 2023 Aranjuez Poon.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+
+
+package com.pyrube.wea.ui.tags.core;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.InvalidPropertyException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Precompiled read accessors of the bean properties rendered by the option tags 
+ * (i.e. the value and label properties of the items). An accessor is a method handle 
+ * of the property getter, looked up once per (class, property) and cached with the 
+ * class, so reading a property allocates no bean wrapper. Nested or indexed property 
+ * paths, and properties without a getter, are still read through a {@link org.springframework.beans.BeanWrapper}.
+ * 
+ * @author Aranjuez
+ * @version Oct 17, 2026
+ * @since Pyrube-WEA 1.2
+ */
+public final class PropertyAccessors {
+	
+	/**
+	 * the type of all the accessors: (Object)Object
+	 */
+	private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+	
+	/**
+	 * the accessors per class: {property name : accessor}. an empty accessor means the 
+	 * property is read through a bean wrapper
+	 */
+	private static final ClassValue<Map<String, Optional<MethodHandle>>> accessors = new ClassValue<Map<String, Optional<MethodHandle>>>() {
+		@Override
+		protected Map<String, Optional<MethodHandle>> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<String, Optional<MethodHandle>>();
+		}
+	};
+	
+	/**
+	 * constructor
+	 */
+	private PropertyAccessors() {
+	}
+	
+	/**
+	 * returns the value of the given property of the given bean
+	 * @param bean the bean
+	 * @param propertyName the property name or path
+	 * @return Object
+	 * @throws org.springframework.beans.BeansException if the property is not readable or its getter throws an exception
+	 */
+	public static Object getPropertyValue(Object bean, String propertyName) {
+		if (bean == null) return PropertyAccessorFactory.forBeanPropertyAccess(bean).getPropertyValue(propertyName);
+		Class<?> beanClass = bean.getClass();
+		Map<String, Optional<MethodHandle>> classAccessors = accessors.get(beanClass);
+		Optional<MethodHandle> accessor = classAccessors.get(propertyName);
+		if (accessor == null) {
+			accessor = Optional.ofNullable(accessorOf(beanClass, propertyName));
+			classAccessors.put(propertyName, accessor);
+		}
+		if (!accessor.isPresent()) return PropertyAccessorFactory.forBeanPropertyAccess(bean).getPropertyValue(propertyName);
+		try {
+			return (Object) accessor.get().invokeExact(bean);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			// wraps any exception of the getter, as a bean wrapper does
+			throw new InvalidPropertyException(beanClass, propertyName, "Getter for property '" + propertyName + "' threw exception", e);
+		}
+	}
+	
+	/**
+	 * looks up the accessor of the given property of the given class
+	 * @param beanClass
+	 * @param propertyName
+	 * @return MethodHandle. null if the property is a path or has no getter
+	 */
+	private static MethodHandle accessorOf(Class<?> beanClass, String propertyName) {
+		if (propertyName.indexOf('.') >= 0 || propertyName.indexOf('[') >= 0) return null;
+		PropertyDescriptor pd = BeanUtils.getPropertyDescriptor(beanClass, propertyName);
+		Method readMethod = (pd != null) ? pd.getReadMethod() : null;
+		if (readMethod == null) return null;
+		try {
+			ReflectionUtils.makeAccessible(readMethod);
+			return MethodHandles.lookup().unreflect(readMethod).asType(ACCESSOR_TYPE);
+		} catch (IllegalAccessException | RuntimeException e) {
+			return null;
+		}
+	}
+	
+}
@@ -16,24 +16,21 @@
 
 package com.pyrube.wea.ui.tags.core;
 
-import java.math.BigInteger;
 import java.text.Format;
 import java.util.Collection;
 import java.util.Map;
 
 import javax.servlet.jsp.JspException;
 
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.servlet.support.BindStatus;
 import org.springframework.web.servlet.tags.form.TagWriter;
 import org.springframework.web.util.HtmlUtils;
 
-import com.pyrube.one.app.Apps;
 import com.pyrube.one.lang.Strings;
 import com.pyrube.wea.context.WebContextHolder;
+import com.pyrube.wea.format.core.LocalFormats;
 
 /**
  * This class is revised based on the class from spring mvc.
@@ -107,6 +104,16 @@ public class WeaOptionWriter {
 
 	private final boolean htmlEscape;
 
+	/**
+	 * the locale code the option values are formatted with. it is resolved once per writer.
+	 */
+	private String localeCode;
+
+	/**
+	 * the bound values the options are matched against. they are normalized once per writer.
+	 */
+	private WeaSelectedValueComparator.SelectedValues selectedValues;
+
 	/**
 	 * Creates a new {@code OptionWriter} for the supplied {@code objectSource}.
 	 * @param optionSource the source of the {@code options} (never {@code null})
@@ -172,10 +179,10 @@ public class WeaOptionWriter {
 			Object mapKey = entry.getKey();
 			Object mapValue = entry.getValue();
 			Object renderValue = (this.valueProperty != null ?
-					PropertyAccessorFactory.forBeanPropertyAccess(mapKey).getPropertyValue(this.valueProperty) :
+					PropertyAccessors.getPropertyValue(mapKey, this.valueProperty) :
 					mapKey);
 			Object renderLabel = (this.labelProperty != null ?
-					PropertyAccessorFactory.forBeanPropertyAccess(mapValue).getPropertyValue(this.labelProperty) :
+					PropertyAccessors.getPropertyValue(mapValue, this.labelProperty) :
 					mapValue);
 			renderOption(tagWriter, mapKey, renderValue, renderLabel);
 		}
@@ -205,10 +212,9 @@ public class WeaOptionWriter {
 	 */
 	private void doRenderFromCollection(Collection<?> optionCollection, TagWriter tagWriter) throws JspException {
 		for (Object item : optionCollection) {
-			BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(item);
 			Object value;
 			if (this.valueProperty != null) {
-				value = wrapper.getPropertyValue(this.valueProperty);
+				value = PropertyAccessors.getPropertyValue(item, this.valueProperty);
 			}
 			else if (item instanceof Enum) {
 				value = ((Enum<?>) item).name();
@@ -216,7 +222,7 @@ public class WeaOptionWriter {
 			else {
 				value = item;
 			}
-			Object label = (this.labelProperty != null ? wrapper.getPropertyValue(this.labelProperty) : item);
+			Object label = (this.labelProperty != null ? PropertyAccessors.getPropertyValue(item, this.labelProperty) : item);
 			renderOption(tagWriter, item, value, label);
 		}
 	}
@@ -250,8 +256,10 @@ public class WeaOptionWriter {
 	 * HTML-escaped as required.
 	 */
 	private String getDisplayString(Object value) {
-		String localeCode = WebContextHolder.getWebContext().getLocale().toString();
-		return htmlEscape(formatValue(localeCode, null, value));
+		if (this.localeCode == null) {
+			this.localeCode = WebContextHolder.getWebContext().getLocale().toString();
+		}
+		return htmlEscape(formatValue(this.localeCode, null, value));
 	}
 
 	/**
@@ -268,17 +276,9 @@ public class WeaOptionWriter {
 		Format format = null;
 		if (unformated instanceof Number) {
 			if (Strings.isEmpty(nameOrPattern)) {
-				if ((unformated instanceof Byte)
-						|| (unformated instanceof Short)
-						|| (unformated instanceof Integer)
-						|| (unformated instanceof Long)
-						|| (unformated instanceof BigInteger)) {
-					nameOrPattern = Apps.i18n.format.name.INTEGER;
-				} else {
-					nameOrPattern = Apps.i18n.format.name.FLOAT;
-				}
+				nameOrPattern = LocalFormats.numberFormatNameOf((Number) unformated);
 			}
-			format = Apps.a.number.format.of(localeCode, nameOrPattern).value();
+			format = LocalFormats.numberFormatOf(localeCode, nameOrPattern);
 		}
 		return format != null ? format.format(unformated) : unformated != null ? (String) unformated : Strings.EMPTY;
 	}
@@ -306,10 +306,13 @@ public class WeaOptionWriter {
 
 	/**
 	 * Determine whether the supplied values matched the selected value.
-	 * Delegates to {@link WeaSelectedValueComparator#isSelected}.
+	 * Delegates to {@link WeaSelectedValueComparator.SelectedValues#isSelected}.
 	 */
 	private boolean isOptionSelected(Object resolvedValue) {
-		return WeaSelectedValueComparator.isSelected(this.bindStatus, resolvedValue.toString());
+		if (this.selectedValues == null) {
+			this.selectedValues = WeaSelectedValueComparator.selectedValuesOf(this.bindStatus);
+		}
+		return this.selectedValues.isSelected(resolvedValue.toString());
 	}
 
 	/**
@@ -17,9 +17,13 @@
 package com.pyrube.wea.ui.tags.core;
 
 import java.beans.PropertyEditor;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.ObjectUtils;
@@ -102,6 +106,15 @@ public abstract class WeaSelectedValueComparator {
 		return selected;
 	}
 
+	/**
+	 * Returns the values bound to the supplied {@link BindStatus}, normalized once so that 
+	 * each candidate value is matched in constant time. It is meant for the tags which match 
+	 * many candidate values (i.e. options, checkboxes) against one bound value.
+	 */
+	public static SelectedValues selectedValuesOf(BindStatus bindStatus) {
+		return new SelectedValues(bindStatus);
+	}
+
 	private static boolean collectionCompare(Collection<?> boundCollection, Object candidateValue, BindStatus bindStatus) {
 		try {
 			if (boundCollection.contains(candidateValue)) {
@@ -185,4 +198,128 @@ public abstract class WeaSelectedValueComparator {
 		return false;
 	}
 
+	/**
+	 * The values bound to a {@link BindStatus}, indexed by their {@code String} representations 
+	 * and, if a {@link PropertyEditor} is found for them, by themselves. A candidate value is 
+	 * selected under the same <a href="#equality-contract">equality contract</a> as
+	 * {@link WeaSelectedValueComparator#isSelected}, but it is converted at most twice
+	 * instead of being compared with every bound element.
+	 */
+	public static final class SelectedValues {
+
+		private final BindStatus bindStatus;
+
+		private final Object renderedValue;
+
+		private final Object actualValue;
+
+		private final Object boundValue;
+
+		/**
+		 * the {@code String} representations of the bound value and its elements
+		 */
+		private final Set<String> displayStrings = new HashSet<String>();
+
+		/**
+		 * the bound elements which are compared with the candidates converted by the element editor
+		 */
+		private final Set<Object> elements = new HashSet<Object>();
+
+		/**
+		 * the bound elements which are arrays. a hash set compares arrays by identity, so they are 
+		 * compared by content with {@link ObjectUtils#nullSafeEquals} instead
+		 */
+		private final List<Object> arrayElements = new ArrayList<Object>(0);
+
+		private PropertyEditor elementEditor;
+
+		private SelectedValues(BindStatus bindStatus) {
+			this.bindStatus = bindStatus;
+			this.renderedValue = (bindStatus != null) ? bindStatus.getValue() : null;
+			this.actualValue = (bindStatus != null) ? bindStatus.getActualValue() : null;
+			this.boundValue = (this.actualValue != null) ? this.actualValue : this.renderedValue;
+			if (this.boundValue == null) return;
+			if (this.boundValue.getClass().isArray()) {
+				indexElements(CollectionUtils.arrayToList(this.boundValue));
+			}
+			else if (this.boundValue instanceof Collection) {
+				indexElements((Collection<?>) this.boundValue);
+			}
+			else if (this.boundValue instanceof Map) {
+				indexElements(((Map<?, ?>) this.boundValue).keySet());
+			}
+			indexDisplayStrings(this.boundValue);
+		}
+
+		private void indexElements(Collection<?> collection) {
+			for (Object element : collection) {
+				if (this.elementEditor == null && element != null) {
+					this.elementEditor = this.bindStatus.findEditor(element.getClass());
+				}
+				indexDisplayStrings(element);
+				if (element != null && element.getClass().isArray()) {
+					this.arrayElements.add(element);
+				}
+				else if (element != null && !element.getClass().isEnum()) {
+					this.elements.add(element);
+				}
+			}
+		}
+
+		private void indexDisplayStrings(Object value) {
+			if (value != null && value.getClass().isEnum()) {
+				Enum<?> enumValue = (Enum<?>) value;
+				this.displayStrings.add(ObjectUtils.getDisplayString(enumValue.name()));
+				this.displayStrings.add(ObjectUtils.getDisplayString(enumValue.toString()));
+			}
+			else {
+				this.displayStrings.add(ObjectUtils.getDisplayString(value));
+			}
+		}
+
+		/**
+		 * Returns {@code true} if the supplied candidate value is equal to the bound value.
+		 */
+		public boolean isSelected(String candidateValue) {
+			if (this.bindStatus == null) {
+				return (candidateValue == null);
+			}
+			if (ObjectUtils.nullSafeEquals(this.renderedValue, candidateValue) || 
+					(this.actualValue != null && ObjectUtils.nullSafeEquals(this.actualValue, candidateValue))) {
+				return true;
+			}
+			if (this.boundValue == null || candidateValue == null) {
+				return false;
+			}
+			if (this.displayStrings.contains(candidateValue)) {
+				return true;
+			}
+			if (this.elementEditor != null && (!this.elements.isEmpty() || !this.arrayElements.isEmpty())) {
+				this.elementEditor.setAsText(candidateValue);
+				Object candidateAsValue = this.elementEditor.getValue();
+				if (this.elements.contains(candidateAsValue)) {
+					return true;
+				}
+				for (Object element : this.arrayElements) {
+					if (ObjectUtils.nullSafeEquals(element, candidateAsValue)) {
+						return true;
+					}
+				}
+			}
+			PropertyEditor editor = this.bindStatus.getEditor();
+			if (editor != null && !this.boundValue.getClass().isEnum()) {
+				editor.setAsText(candidateValue);
+				return ObjectUtils.nullSafeEquals(this.boundValue, editor.getValue());
+			}
+			return false;
+		}
+
+		/**
+		 * Returns {@code true} if these values are bound to the supplied {@link BindStatus}.
+		 */
+		public boolean isOf(BindStatus bindStatus) {
+			return (this.bindStatus == bindStatus);
+		}
+	}
+
 }
@@ -18,9 +18,15 @@ package com.pyrube.wea.util;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -37,6 +43,8 @@ import org.springframework.expression.Expression;
 import org.springframework.expression.ParseException;
 import org.springframework.security.access.expression.ExpressionUtils;
 import org.springframework.security.access.expression.SecurityExpressionHandler;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.FilterInvocation;
 import org.springframework.web.context.support.WebApplicationContextUtils;
@@ -48,10 +56,12 @@ import com.pyrube.one.app.menu.MenuItem;
 import com.pyrube.one.app.user.User;
 import com.pyrube.one.lang.Strings;
 import com.pyrube.wea.WeaConfig;
+import com.pyrube.wea.WeaConfig.Captcha;
 import com.pyrube.wea.WeaConfig.Cookie;
 import com.pyrube.wea.WeaConstants;
 import com.pyrube.wea.context.WebContext;
 import com.pyrube.wea.context.WebContextHolder;
+import com.pyrube.wea.security.core.WeaUserDetails;
 
 /**
  * <code>Pyrube-WEA</code> utilities
@@ -67,6 +77,46 @@ public class Weas {
 	 */
 	private static Logger logger = Logger.getInstance(Weas.class.getName());
 	
+	/**
+	 * the maximum number of parsed access expressions to be cached
+	 */
+	private static final int MAX_EXPRESSION_CACHE_SIZE = 1024;
+	
+	/**
+	 * parsed access expressions, keyed by expression string
+	 */
+	private static final Map<String, Expression> accessExpressions = new ConcurrentHashMap<String, Expression>();
+	
+	/**
+	 * the web security expression handler. it is resolved only once, an empty one 
+	 * is cached if no handler is configured.
+	 */
+	private static volatile Optional<SecurityExpressionHandler<FilterInvocation>> expressionHandler = null;
+	
+	/**
+	 * hits and misses of the request-scoped access decisions
+	 */
+	private static final LongAdder accessDecisionHits = new LongAdder();
+	private static final LongAdder accessDecisionMisses = new LongAdder();
+	
+	/**
+	 * the maximum number of sub-menu item lists to be cached
+	 */
+	private static final int MAX_SUBMENU_CACHE_SIZE = 512;
+	
+	/**
+	 * the sub-menu items user has access permission, keyed by menu item and user authorities. 
+	 * it is a LRU map since users with same authorities share the same list.
+	 */
+	@SuppressWarnings("serial")
+	private static final Map<String, SubmenuItems> submenuItems = Collections.synchronizedMap(
+			new LinkedHashMap<String, SubmenuItems>(64, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, SubmenuItems> eldest) {
+					return size() > MAX_SUBMENU_CACHE_SIZE;
+				}
+			});
+	
 	/**
 	 * Turn special characters into HTML character references.
 	 * Handles complete character set defined in HTML 4.01 recommendation.
@@ -153,6 +203,56 @@ public class Weas {
 		return captcha0.equalsIgnoreCase(captcha);
 	}
 
+	/**
+	 * returns the stateless captcha token from cookie. it is null, if no cookie
+	 * @param request HttpServletRequest
+	 * @return String
+	 */
+	public static String getCaptchaTokenCookieValue(HttpServletRequest request) {
+		Cookie cookie = captchaTokenCookie(request, null);
+		javax.servlet.http.Cookie httpCookie = findCookie(request, cookie);
+		if (httpCookie == null) return null;
+		return httpCookie.getValue();
+	}
+
+	/**
+	 * adds a cookie with the stateless captcha token to the response. 
+	 * it expires with the token.
+	 * @param request HttpServletRequest
+	 * @param response HttpServletResponse
+	 * @param token String
+	 */
+	public static void setCaptchaTokenCookie(HttpServletRequest request, HttpServletResponse response, String token) {
+		addCookie(response, captchaTokenCookie(request, token));
+	}
+
+	/**
+	 * removes the cookie of stateless captcha token from the response
+	 * @param request HttpServletRequest
+	 * @param response HttpServletResponse
+	 */
+	public static void removeCaptchaTokenCookie(HttpServletRequest request, HttpServletResponse response) {
+		removeCookie(response, captchaTokenCookie(request, null));
+	}
+
+	/**
+	 * returns a new WEA cookie for the stateless captcha token. it is scoped to 
+	 * the application context.
+	 * @param request HttpServletRequest
+	 * @param token String
+	 * @return Cookie
+	 */
+	private static Cookie captchaTokenCookie(HttpServletRequest request, String token) {
+		WeaConfig weaConfig = WeaConfig.getWeaConfig();
+		Captcha captcha = weaConfig.getCaptcha();
+		Cookie cookie = weaConfig.new Cookie(captcha.getTokenCookieName(), token);
+		cookie.setServerHost(request.getServerName());
+		String contextPath = request.getContextPath();
+		cookie.setPath(Strings.isEmpty(contextPath) ? "/" : contextPath);
+		cookie.setMaxAge(captcha.getTokenTtl());
+		return(cookie);
+	}
+
 	/**
 	 * Hold the given user as session attribute.
 	 * @param request current HTTP request
@@ -392,50 +492,135 @@ public class Weas {
 	}
 	
 	/**
-	 * Returns the sub-menu items user has access permission of the given root and a given id
+	 * Returns the sub-menu items user has access permission of the given root and a given id. 
+	 * The list is computed once per distinct set of user authorities and shared by users, 
+	 * so it is unmodifiable and its items must not be changed. Access expressions of the 
+	 * menu items are supposed to depend on the user authorities only. A cached list is 
+	 * filtered again once the menu item or its sub-menu list is replaced (the menus are reloaded).
 	 * @param ROOT MenuItem
 	 * @param itemId String
 	 * @return
 	 */
 	public static List<MenuItem> mySubmenuItems(MenuItem ROOT, String itemId) {
 		MenuItem item = ROOT.find(itemId);
-		List<MenuItem> subs = null;
-		List<MenuItem> myItems = null;
-		if (item != null && (subs = item.getSubs()) != null) {
-			myItems = new ArrayList<MenuItem>();
-			for (MenuItem sub : subs) {
-				String access = sub.getAccess();
-				if (Strings.isEmpty(access)) myItems.add(sub.clone(false));
-				else if (Weas.evaluateUserAccessExpression(access)) myItems.add(sub.clone(false));
-			}
+		List<MenuItem> subs = (item != null) ? item.getSubs() : null;
+		if (subs == null) return null;
+		Authentication authen = SecurityContextHolder.getContext().getAuthentication();
+		if (authen == null) return filterSubmenuItems(subs);
+		String key = ROOT.getId() + "|" + itemId + "|" + resolveAuthoritiesKey(authen);
+		SubmenuItems cached = submenuItems.get(key);
+		if (cached == null || cached.item != item || cached.subs != subs) {
+			cached = new SubmenuItems(item, subs, Collections.unmodifiableList(filterSubmenuItems(subs)));
+			submenuItems.put(key, cached);
+		}
+		return cached.myItems;
+	}
+	
+	/**
+	 * filters the sub-menu items user has access permission
+	 * @param subs the sub-menu items of a menu item
+	 * @return
+	 */
+	private static List<MenuItem> filterSubmenuItems(List<MenuItem> subs) {
+		List<MenuItem> myItems = new ArrayList<MenuItem>();
+		for (MenuItem sub : subs) {
+			String access = sub.getAccess();
+			if (Strings.isEmpty(access)) myItems.add(sub.clone(false));
+			else if (Weas.evaluateUserAccessExpression(access)) myItems.add(sub.clone(false));
 		}
 		return myItems;
 	}
 	
 	/**
-	 * evaluate user access control expression
+	 * resolves a key of the authentication type and its (sorted) authorities
+	 * @param authen
+	 * @return String
+	 */
+	private static String resolveAuthoritiesKey(Authentication authen) {
+		Object principal = authen.getPrincipal();
+		Iterable<? extends GrantedAuthority> authorities = (principal instanceof WeaUserDetails) 
+				? ((WeaUserDetails) principal).getAuthorities() : authen.getAuthorities();
+		TreeSet<String> rights = new TreeSet<String>();
+		if (authorities != null) {
+			for (GrantedAuthority authority : authorities) rights.add(String.valueOf(authority.getAuthority()));
+		}
+		return authen.getClass().getName() + rights.toString();
+	}
+	
+	/**
+	 * evaluate user access control expression. each distinct expression is evaluated 
+	 * at most once per request, the decision is held by current <code>WebContext</code>. 
+	 * access is denied if no <code>WebContext</code> found.
 	 * @param access
 	 * @return true user has access
 	 */
 	public static boolean evaluateUserAccessExpression(String access) {
-		if (SecurityContextHolder.getContext().getAuthentication() == null) {
+		Authentication authen = SecurityContextHolder.getContext().getAuthentication();
+		if (authen == null) {
 			return false;
 		}
-		SecurityExpressionHandler<FilterInvocation> handler = getExpressionHandler();
-		Expression accessExpression;
-		try {
-			accessExpression = handler.getExpressionParser().parseExpression(access);
+		WebContext webCtx = WebContextHolder.getWebContext();
+		if (webCtx == null) {
+			return false;
 		}
-		catch (ParseException e) {
-			logger.error("access expression error", e);
-			return(false);
+		Boolean decision = webCtx.findAccessDecision(authen, access);
+		if (decision != null) {
+			accessDecisionHits.increment();
+			return decision.booleanValue();
+		}
+		accessDecisionMisses.increment();
+		boolean granted = evaluateUserAccessExpression(access, authen);
+		webCtx.holdAccessDecision(authen, access, granted);
+		return granted;
+	}
+	
+	/**
+	 * returns the number of access decisions found in request scope
+	 * @return long
+	 */
+	public static long getAccessDecisionHits() {
+		return accessDecisionHits.sum();
+	}
+	
+	/**
+	 * returns the number of access decisions not found in request scope, i.e. evaluated
+	 * @return long
+	 */
+	public static long getAccessDecisionMisses() {
+		return accessDecisionMisses.sum();
+	}
+	
+	private static boolean evaluateUserAccessExpression(String access, Authentication authen) {
+		SecurityExpressionHandler<FilterInvocation> handler = getExpressionHandler();
+		if (handler == null) return false;
+		Expression accessExpression = accessExpressions.get(access);
+		if (accessExpression == null) {
+			try {
+				accessExpression = handler.getExpressionParser().parseExpression(access);
+			}
+			catch (ParseException e) {
+				logger.error("access expression error", e);
+				return(false);
+			}
+			if (accessExpressions.size() >= MAX_EXPRESSION_CACHE_SIZE) accessExpressions.clear();
+			accessExpressions.put(access, accessExpression);
 		}
 
 		return ExpressionUtils.evaluateAsBoolean(accessExpression,
-				createExpressionEvaluationContext(handler));
+				obtainExpressionEvaluationContext(handler, authen));
 	}
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	private static SecurityExpressionHandler<FilterInvocation> getExpressionHandler() {
+		Optional<SecurityExpressionHandler<FilterInvocation>> handler = expressionHandler;
+		if (handler == null) {
+			synchronized(Weas.class) {
+				if (expressionHandler == null) expressionHandler = Optional.ofNullable(findExpressionHandler());
+				handler = expressionHandler;
+			}
+		}
+		return(handler.orElse(null));
+	}
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static SecurityExpressionHandler<FilterInvocation> findExpressionHandler() {
 		HttpServletRequest request = WebContextHolder.getWebContext().getRequest();
 		ApplicationContext appContext = WebApplicationContextUtils
 				.getRequiredWebApplicationContext(request.getServletContext());
@@ -453,8 +638,22 @@ public class Weas {
 						+ "context. There must be at least one in order to support expressions in JSP 'authorize' tags.");
 		return(null);
 	}
+	/**
+	 * returns the evaluation context held by current <code>WebContext</code>, 
+	 * creates and holds a new one if not found for the given authentication.
+	 */
+	private static EvaluationContext obtainExpressionEvaluationContext(
+			SecurityExpressionHandler<FilterInvocation> handler, Authentication authen) {
+		WebContext webCtx = WebContextHolder.getWebContext();
+		EvaluationContext evalContext = webCtx.getAccessEvaluationContext(authen);
+		if (evalContext == null) {
+			evalContext = createExpressionEvaluationContext(handler, authen);
+			webCtx.setAccessEvaluationContext(authen, evalContext);
+		}
+		return(evalContext);
+	}
 	private static EvaluationContext createExpressionEvaluationContext(
-			SecurityExpressionHandler<FilterInvocation> handler) {
+			SecurityExpressionHandler<FilterInvocation> handler, Authentication authen) {
 		WebContext webCtx = WebContextHolder.getWebContext();
 		ServletRequest request = webCtx.getRequest();
 		ServletResponse response = webCtx.getResponse();
@@ -466,7 +665,22 @@ public class Weas {
 					}
 				});
 
-		return handler.createEvaluationContext(SecurityContextHolder.getContext()
-				.getAuthentication(), f);
+		return handler.createEvaluationContext(authen, f);
+	}
+	
+	/**
+	 * the cached sub-menu items user has access permission, with the menu item and 
+	 * sub-menu list they are filtered from
+	 */
+	private static class SubmenuItems {
+		private final MenuItem item;
+		private final List<MenuItem> subs;
+		private final List<MenuItem> myItems;
+		
+		SubmenuItems(MenuItem item, List<MenuItem> subs, List<MenuItem> myItems) {
+			this.item = item;
+			this.subs = subs;
+			this.myItems = myItems;
+		}
 	}
 }